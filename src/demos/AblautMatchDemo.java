@@ -11,7 +11,7 @@ public class AblautMatchDemo {
         String suffix1 = prompt("Enter the first suffix:  ");
         String suffix2 = prompt("Enter the second suffix:  ");
         FynotekWord modifier = new FynotekWord(getModifier(nounCase, word.isProper));
-        FynotekWord inflectedNoun = word.nounCase(nounCase).suffix(suffix1).suffix(suffix2);
+        FynotekWord inflectedNoun = word.builder().inflect(nounCase).suffix(suffix1).suffix(suffix2).build();
         System.out.println(inflectedNoun + " " + modifier.match(inflectedNoun));
     }
 
@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord;
+import io.github.mathmaster13.aspenlangs.fynotek.Inflection;
+import io.github.mathmaster13.aspenlangs.fynotek.OldFynotekWord;
+
+/**
+ * Inflects every word in a file, writing one inflected word per line to another file.
+ * Each line of the input file is a root, optionally followed by the word "proper" (for proper nouns),
+ * optionally followed by the name of an inflection (such as GENITIVE, PAST, or REDUPLICATION), all separated by whitespace.
+ * Roots without an inflection are written as they are, and blank lines are kept.
+ *
+ * Usage: java BatchInflectionDemo &lt;input file&gt; &lt;output file&gt; [old]
+ */
+public class BatchInflectionDemo {
+    /** How much of the input file is mapped into memory at a time. */
+    private static final long WINDOW_SIZE = 64L << 20;
+    /** The approximate size of each piece of work handed to a thread. */
+    private static final int CHUNK_SIZE = 1 << 20;
+    /** How many chunks may be waiting to be written at once. */
+    private static final int MAX_PENDING_CHUNKS = 4 * Runtime.getRuntime().availableProcessors();
+
+    private static final HashMap<String, Inflection> inflections = new HashMap<>();
+    static {
+        for (Inflection inflection : Inflection.values) inflections.put(((Enum<?>) inflection).name(), inflection);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 2) {
+            System.out.println("Usage: java BatchInflectionDemo <input file> <output file> [old]");
+            return;
+        }
+        final boolean old = (args.length > 2 && args[2].equalsIgnoreCase("old"));
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (FileChannel input = FileChannel.open(Path.of(args[0]), StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(Path.of(args[1]), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ArrayDeque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            final long size = input.size();
+            long position = 0;
+            while (position < size) {
+                final MappedByteBuffer window = input.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+                // Only whole lines are processed; a partial line at the end of a window is left for the next window.
+                final int windowEnd = (position + window.limit() == size ? window.limit() : lastLineEnd(window, 0, window.limit()));
+                if (windowEnd == 0) throw new IOException("Line is longer than " + WINDOW_SIZE + " bytes");
+
+                int chunkStart = 0;
+                while (chunkStart < windowEnd) {
+                    int chunkEnd = Math.min(chunkStart + CHUNK_SIZE, windowEnd);
+                    if (chunkEnd < windowEnd) {
+                        final int lineEnd = lastLineEnd(window, chunkStart, chunkEnd);
+                        chunkEnd = (lineEnd > chunkStart ? lineEnd : nextLineEnd(window, chunkEnd, windowEnd));
+                    }
+                    final ByteBuffer chunk = window.slice(chunkStart, chunkEnd - chunkStart);
+                    // Results are written in the order they were submitted, so the output is in the same order as the input.
+                    if (pending.size() >= MAX_PENDING_CHUNKS) write(output, pending.removeFirst().get());
+                    pending.addLast(executor.submit(() -> inflectChunk(chunk, old)));
+                    chunkStart = chunkEnd;
+                }
+                position += windowEnd;
+            }
+            while (!pending.isEmpty()) write(output, pending.removeFirst().get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Inflects every line in a chunk of the input file, and returns the encoded output. */
+    private static ByteBuffer inflectChunk(ByteBuffer chunk, boolean old) {
+        final CharBuffer text = StandardCharsets.UTF_8.decode(chunk);
+        final StringBuilder output = new StringBuilder(text.length() + text.length() / 4);
+        int lineStart = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i < text.length() && text.charAt(i) != '\n') continue;
+            if (i == text.length() && lineStart == i) break; // The chunk ended with a line break.
+            output.append(inflectLine(text.subSequence(lineStart, i).toString(), old)).append('\n');
+            lineStart = i + 1;
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(output));
+    }
+
+    private static String inflectLine(String line, boolean old) {
+        final String[] columns = line.trim().split("\\s+");
+        if (columns[0].isEmpty()) return "";
+        boolean proper = false;
+        Inflection inflection = null;
+        for (int i = 1; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase("proper")) proper = true;
+            else {
+                inflection = inflections.get(columns[i].toUpperCase());
+                if (inflection == null) throw new IllegalArgumentException("Unknown inflection: " + columns[i]);
+            }
+        }
+        return (old ? new OldFynotekWord(columns[0]).inflect(inflection) : new FynotekWord(columns[0], proper).inflect(inflection)).toString();
+    }
+
+    private static void write(FileChannel output, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) output.write(buffer);
+    }
+
+    // Convenience functions
+    /** Returns the index just after the last line break between start and end, or start if there is none. */
+    private static int lastLineEnd(ByteBuffer buffer, int start, int end) {
+        for (int i = end - 1; i >= start; i--)
+            if (buffer.get(i) == '\n') return i + 1;
+        return start;
+    }
+
+    /** Returns the index just after the next line break at or after start, or end if there is none. */
+    private static int nextLineEnd(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++)
+            if (buffer.get(i) == '\n') return i + 1;
+        return end;
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import io.github.mathmaster13.aspenlangs.fynotek.Analysis.PartOfSpeech;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Ablaut;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A reverse index from every ablaut form of a set of roots to the roots and ablauts that produce it.
+ * Every ablaut form of every root is computed once, when the index is created, so finding the roots that a word could be an ablaut form of is a single lookup.
+ * All instances of this class are immutable and thread-safe.
+ *
+ * An index can follow the ablaut rules of either modern Fynotek ({@link FynotekWord}) or old Fynotek ({@link OldFynotekWord}).
+ * An index can also be written to a binary stream with {@link #writeTo(DataOutput)} and read back with {@link #readFrom(DataInput)},
+ * which is much faster than computing every ablaut form again.
+ * @author mathmaster13
+ * @see BaseFynotekWord#ablaut(Ablaut)
+ * @since 4.0
+ */
+public final class AblautIndex {
+    /**
+     * One way of producing an ablaut form.
+     * @param root the root form that the ablaut is applied to.
+     * @param ablaut the ablaut applied to <code>root</code>.
+     * @param partsOfSpeech the parts of speech that a word with this root and ablaut could be. This set is unmodifiable.
+     */
+    public record Entry(String root, Ablaut ablaut, Set<PartOfSpeech> partsOfSpeech) {}
+
+    private final HashMap<String, List<Entry>> entries;
+
+    private AblautIndex(Collection<String> roots, Set<String> pronouns, boolean isOld) {
+        entries = new HashMap<>();
+        for (String root : roots) {
+            final BaseFynotekWord word = (isOld ? new OldFynotekWord(root) : new FynotekWord(root));
+            for (Ablaut ablaut : Ablaut.values()) {
+                if (isOld && ablaut == Ablaut.Y) continue;
+                entries.computeIfAbsent(word.ablaut(ablaut).toString(), key -> new ArrayList<>(1))
+                        .add(new Entry(root, ablaut, partsOfSpeech(root, ablaut, pronouns, isOld)));
+            }
+        }
+        entries.replaceAll((form, list) -> List.copyOf(list));
+    }
+
+    private AblautIndex(HashMap<String, List<Entry>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Creates an index of every ablaut form of every root, following the rules of modern Fynotek.
+     * Forms with E, U, Y, or reduplication ablaut can only be verbs or modifiers, as can "folo" with O ablaut and pronouns with I ablaut.
+     * Every other form can be any part of speech.
+     * @param roots every root to index. Every root should be in lowercase.
+     * @param pronouns every pronoun, which may or may not be in <code>roots</code>.
+     * @return an index of every ablaut form of <code>roots</code>.
+     */
+    public static AblautIndex of(Collection<String> roots, Collection<String> pronouns) {
+        return new AblautIndex(roots, new HashSet<>(pronouns), false);
+    }
+
+    /**
+     * Creates an index of every ablaut form of every root, following the rules of old Fynotek.
+     * Since old Fynotek has no Y ablaut, no Y ablaut forms are indexed.
+     * Forms with E, U, or reduplication ablaut can only be verbs or modifiers, and every other form can be any part of speech.
+     * @param roots every root to index. Every root should be in lowercase.
+     * @return an index of every ablaut form of <code>roots</code>.
+     */
+    public static AblautIndex ofOld(Collection<String> roots) {
+        return new AblautIndex(roots, Set.of(), true);
+    }
+
+    private static Set<PartOfSpeech> partsOfSpeech(String root, Ablaut ablaut, Set<String> pronouns, boolean isOld) {
+        final boolean isVerbOrModifierOnly = switch (ablaut) {
+            case E, U, Y, REDUPLICATION -> true;
+            case O -> !isOld && root.equals("folo");
+            case I -> pronouns.contains(root);
+            case DEFAULT, A -> false;
+        };
+        return (isVerbOrModifierOnly ? PartOfSpeech.VERB_OR_MODIFIER : PartOfSpeech.ALL);
+    }
+
+    /**
+     * Returns every root and ablaut that produce <code>form</code>, in no particular order.
+     * A root is its own {@link Ablaut#DEFAULT} form, so roots are included as well.
+     * @param form the ablaut form to look up.
+     * @return an unmodifiable list of every entry that produces <code>form</code>, or an empty list if there are none.
+     */
+    public List<Entry> lookup(String form) {
+        return entries.getOrDefault(form, List.of());
+    }
+
+    /** Returns every ablaut form in this index. The returned set is unmodifiable. */
+    Set<String> forms() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Writes this index to <code>out</code>, in a format that can be read by {@link #readFrom(DataInput)}.
+     * Each root is only written once, no matter how many ablaut forms it has.
+     * @param out the stream to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        final HashMap<String, Integer> rootIndices = new HashMap<>();
+        final ArrayList<String> roots = new ArrayList<>();
+        for (List<Entry> list : entries.values())
+            for (Entry entry : list)
+                if (rootIndices.putIfAbsent(entry.root(), roots.size()) == null) roots.add(entry.root());
+
+        out.writeInt(roots.size());
+        for (String root : roots) out.writeUTF(root);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, List<Entry>> form : entries.entrySet()) {
+            out.writeUTF(form.getKey());
+            out.writeByte(form.getValue().size());
+            for (Entry entry : form.getValue()) {
+                out.writeInt(rootIndices.get(entry.root()));
+                out.writeByte(entry.ablaut().ordinal());
+                out.writeBoolean(entry.partsOfSpeech().equals(PartOfSpeech.VERB_OR_MODIFIER));
+            }
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo(DataOutput)}.
+     * @param in the stream to read from.
+     * @return the index that was written to <code>in</code>.
+     * @throws IOException if an I/O error occurs, or if <code>in</code> does not contain a valid index.
+     */
+    public static AblautIndex readFrom(DataInput in) throws IOException {
+        final int rootCount = in.readInt();
+        if (rootCount < 0) throw new IOException("Invalid root count: " + rootCount);
+        final String[] roots = new String[rootCount];
+        for (int i = 0; i < rootCount; i++) roots[i] = in.readUTF();
+
+        final int formCount = in.readInt();
+        if (formCount < 0) throw new IOException("Invalid form count: " + formCount);
+        final Ablaut[] ablauts = Ablaut.values();
+        final HashMap<String, List<Entry>> entries = new HashMap<>((int) (formCount / 0.75f) + 1);
+        for (int i = 0; i < formCount; i++) {
+            final String form = in.readUTF();
+            final Entry[] list = new Entry[in.readUnsignedByte()];
+            for (int j = 0; j < list.length; j++) {
+                final int root = in.readInt(), ablaut = in.readUnsignedByte();
+                if (root < 0 || root >= rootCount || ablaut >= ablauts.length) throw new IOException("Invalid entry for \"" + form + "\"");
+                list[j] = new Entry(roots[root], ablauts[ablaut], (in.readBoolean() ? PartOfSpeech.VERB_OR_MODIFIER : PartOfSpeech.ALL));
+            }
+            entries.put(form, List.of(list));
+        }
+        return new AblautIndex(entries);
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One possible analysis of a Fynotek word into morphemes, as returned by {@link FynotekAnalyzer#analyze(String)}.
+ * An analysis consists of the text of each morpheme, in order, and the parts of speech that the word could be.
+ * All instances of this class are immutable.
+ * @author mathmaster13
+ * @see FynotekAnalyzer
+ * @since 4.0
+ */
+public final class Analysis {
+    private final List<String> text;
+    private final Set<PartOfSpeech> partsOfSpeech;
+
+    /**
+     * Creates an Analysis.
+     * @param text the text of each morpheme in this analysis, in order.
+     * @param partsOfSpeech the parts of speech that a word with this analysis could be.
+     * @throws IllegalArgumentException if <code>partsOfSpeech</code> is empty.
+     */
+    public Analysis(List<String> text, Collection<PartOfSpeech> partsOfSpeech) throws IllegalArgumentException {
+        this(List.copyOf(text), partsOfSpeechSet(partsOfSpeech));
+    }
+
+    /**
+     * Creates an Analysis with a single morpheme.
+     * @param text the text of the morpheme.
+     * @param partsOfSpeech the parts of speech that a word with this analysis could be.
+     * @throws IllegalArgumentException if <code>partsOfSpeech</code> is empty.
+     */
+    public Analysis(String text, Collection<PartOfSpeech> partsOfSpeech) throws IllegalArgumentException {
+        this(List.of(text), partsOfSpeechSet(partsOfSpeech));
+    }
+
+    /**
+     * Creates an Analysis with a single morpheme, which could be any part of speech.
+     * @param text the text of the morpheme.
+     */
+    public Analysis(String text) {
+        this(List.of(text), PartOfSpeech.ALL);
+    }
+
+    // Private constructors
+    /** Creates an Analysis without copying its arguments, which must already be unmodifiable. */
+    private Analysis(List<String> text, Set<PartOfSpeech> partsOfSpeech) {
+        this.text = text;
+        this.partsOfSpeech = partsOfSpeech;
+    }
+
+    private static Set<PartOfSpeech> partsOfSpeechSet(Collection<PartOfSpeech> partsOfSpeech) throws IllegalArgumentException {
+        if (partsOfSpeech.isEmpty()) throw new IllegalArgumentException("Part of speech array cannot be empty");
+        return Collections.unmodifiableSet(EnumSet.copyOf(partsOfSpeech));
+    }
+
+    /**
+     * Returns the text of each morpheme in this analysis, in order. The returned list is unmodifiable.
+     * @return the text of each morpheme in this analysis.
+     */
+    public List<String> getText() {
+        return text;
+    }
+
+    /**
+     * Returns the text of the morpheme at the specified index.
+     * @param index the index of the morpheme.
+     * @return the text of the morpheme at <code>index</code>.
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range.
+     */
+    public String get(int index) throws IndexOutOfBoundsException {
+        return text.get(index);
+    }
+
+    /**
+     * Returns the parts of speech that a word with this analysis could be. The returned set is unmodifiable, and is never empty.
+     * @return the parts of speech that a word with this analysis could be.
+     */
+    public Set<PartOfSpeech> getPartsOfSpeech() {
+        return partsOfSpeech;
+    }
+
+    /**
+     * Returns an analysis containing the morphemes of this analysis followed by the morphemes of <code>other</code>,
+     * which can only be the parts of speech that both analyses can be.
+     * In Kotlin, this method can be called with the <code>+</code> operator.
+     * @param other the analysis to append to this one.
+     * @return the combined analysis, or <code>null</code> if the two analyses have no parts of speech in common.
+     */
+    public @Nullable Analysis plus(Analysis other) {
+        final EnumSet<PartOfSpeech> combinedPartsOfSpeech = EnumSet.copyOf(partsOfSpeech);
+        combinedPartsOfSpeech.retainAll(other.partsOfSpeech);
+        if (combinedPartsOfSpeech.isEmpty()) return null;
+
+        final ArrayList<String> combinedText = new ArrayList<>(text.size() + other.text.size());
+        combinedText.addAll(text);
+        combinedText.addAll(other.text);
+        return new Analysis(Collections.unmodifiableList(combinedText), Collections.unmodifiableSet(combinedPartsOfSpeech));
+    }
+
+    /**
+     * Returns the morphemes of this analysis separated by <code>" + "</code>.
+     * @return a String representation of this analysis.
+     */
+    @Override
+    public String toString() {
+        return String.join(" + ", text);
+    }
+
+    /** Two analyses are equal if they have the same morphemes and the same parts of speech. */
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Analysis that = (Analysis) o;
+
+        if (!text.equals(that.text)) return false;
+        return partsOfSpeech.equals(that.partsOfSpeech);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = text.hashCode();
+        result = 31 * result + partsOfSpeech.hashCode();
+        return result;
+    }
+
+    /**
+     * The parts of speech that an analysis can have.
+     * There are other parts of speech, but this class only deals with these three.
+     */
+    public enum PartOfSpeech {
+        NOUN, VERB, MODIFIER;
+
+        /** Every part of speech. This set is unmodifiable. */
+        public static final Set<PartOfSpeech> ALL = Collections.unmodifiableSet(EnumSet.allOf(PartOfSpeech.class));
+        /** Nouns and modifiers. This set is unmodifiable. */
+        public static final Set<PartOfSpeech> NOUN_OR_MODIFIER = Collections.unmodifiableSet(EnumSet.of(NOUN, MODIFIER));
+        /** Verbs and modifiers. This set is unmodifiable. */
+        public static final Set<PartOfSpeech> VERB_OR_MODIFIER = Collections.unmodifiableSet(EnumSet.of(VERB, MODIFIER));
+
+        private static final List<Set<PartOfSpeech>> singletons = List.of(
+                Collections.unmodifiableSet(EnumSet.of(NOUN)),
+                Collections.unmodifiableSet(EnumSet.of(VERB)),
+                Collections.unmodifiableSet(EnumSet.of(MODIFIER)));
+
+        /**
+         * Returns an unmodifiable set containing only this part of speech.
+         * @return a set containing only this part of speech.
+         */
+        public Set<PartOfSpeech> asSet() {
+            return singletons.get(ordinal());
+        }
+
+        /**
+         * Returns the part of speech marked by a prefix: <i>a</i> for nouns, <i>i</i> for verbs, or <i>o</i> for modifiers.
+         * @param prefix the prefix.
+         * @return the part of speech marked by <code>prefix</code>.
+         * @throws IllegalArgumentException if <code>prefix</code> is not <code>'a'</code>, <code>'i'</code>, or <code>'o'</code>.
+         */
+        public static PartOfSpeech ofPrefix(char prefix) throws IllegalArgumentException {
+            return switch (prefix) {
+                case 'a' -> NOUN;
+                case 'i' -> VERB;
+                case 'o' -> MODIFIER;
+                default -> throw new IllegalArgumentException("prefix must be 'a', 'i', or 'o'");
+            };
+        }
+    }
+}
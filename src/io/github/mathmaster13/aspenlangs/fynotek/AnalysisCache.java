@@ -0,0 +1,211 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import javax.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A bounded, thread-safe cache of the analyses of words, which can be used by a {@link FynotekAnalyzer} through {@link FynotekAnalyzer#withCache(AnalysisCache)}.
+ * A single cache can be used by any number of analyzers and threads at once, but should only be used by analyzers with the same lexicon.
+ *
+ * The size of the cache is bounded by a maximum weight, where each entry's weight is given by a weigher (or is 1 if there is no weigher, so that the cache is bounded by its number of entries).
+ * When the cache is too heavy, entries are evicted with a sampled least-frequently-used policy:
+ * a few entries are sampled, and the one that has been used the least is evicted.
+ * After a number of evictions proportional to the size of the cache, the use count of every entry is halved, so that words that were common in the past do not stay in the cache forever.
+ * The cache can briefly be heavier than its maximum weight while another thread is evicting entries.
+ *
+ * Every list of analyses stored in or returned by the cache is unmodifiable, so it can be shared between threads.
+ * The cache keeps count of its hits, misses, and evictions; these counts are exact, but use counts used for eviction are approximate.
+ * @author mathmaster13
+ * @see FynotekAnalyzer#withCache(AnalysisCache)
+ * @since 4.0
+ */
+public final class AnalysisCache {
+    /** The number of entries sampled for each eviction. */
+    private static final int SAMPLE_SIZE = 8;
+    /** The use counts of every entry are halved after this many evictions per entry in the cache. */
+    private static final int AGING_PERIOD = 10;
+
+    private static final class Node {
+        final String word;
+        final List<Analysis> analyses;
+        final int weight;
+        /** The approximate number of times that this entry has been used. Updates may be lost when several threads use the entry at once. */
+        int frequency = 1;
+
+        Node(String word, List<Analysis> analyses, int weight) {
+            this.word = word;
+            this.analyses = analyses;
+            this.weight = weight;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Node> map = new ConcurrentHashMap<>();
+    private final long maximumWeight;
+    @Nullable
+    private final ToIntBiFunction<? super String, ? super List<Analysis>> weigher;
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+    /** Held by the thread that is evicting entries. */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /** The position in the cache that the next sample is taken from, which is only used while holding {@link #evictionLock}. */
+    @Nullable
+    private Iterator<Node> hand;
+    /** The number of evictions since use counts were last halved, which is only used while holding {@link #evictionLock}. */
+    private long evictionsSinceAging;
+
+    /**
+     * Creates an empty cache that holds at most <code>maximumSize</code> words.
+     * @param maximumSize the maximum number of words in the cache.
+     * @throws IllegalArgumentException if <code>maximumSize</code> is negative.
+     */
+    public AnalysisCache(long maximumSize) throws IllegalArgumentException {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Creates an empty cache whose entries weigh at most <code>maximumWeight</code> in total,
+     * where the weight of each entry is given by <code>weigher</code>, which is called once when the entry is added.
+     * @param maximumWeight the maximum total weight of the entries in the cache.
+     * @param weigher a function that returns the weight of a word and its analyses, which must not be negative, or <code>null</code> to give every entry a weight of 1.
+     * @throws IllegalArgumentException if <code>maximumWeight</code> is negative.
+     */
+    public AnalysisCache(long maximumWeight, @Nullable ToIntBiFunction<? super String, ? super List<Analysis>> weigher) throws IllegalArgumentException {
+        if (maximumWeight < 0) throw new IllegalArgumentException("maximumWeight cannot be negative");
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the analyses of <code>word</code> from the cache, or analyzes it with <code>analyzer</code> and adds it to the cache if it is not present.
+     * If several threads miss the same word at once, it may be analyzed more than once, but only one result is kept.
+     */
+    List<Analysis> get(String word, Function<String, List<Analysis>> analyzer) throws IllegalArgumentException {
+        final Node cached = map.get(word);
+        if (cached != null) {
+            hits.increment();
+            if (cached.frequency < Integer.MAX_VALUE) cached.frequency++;
+            return cached.analyses;
+        }
+        misses.increment();
+        final List<Analysis> analyses = List.copyOf(analyzer.apply(word));
+        final int entryWeight = (weigher == null ? 1 : weigher.applyAsInt(word, analyses));
+        if (entryWeight < 0) throw new IllegalArgumentException("Weight cannot be negative");
+        final Node node = new Node(word, analyses, entryWeight);
+        final Node existing = map.putIfAbsent(word, node);
+        if (existing != null) return existing.analyses;
+        if (weight.addAndGet(entryWeight) > maximumWeight) evict();
+        return analyses;
+    }
+
+    /**
+     * Returns the analyses of <code>word</code> if it is in the cache, without analyzing it if it is not.
+     * A word that is found counts as a hit, but a word that is not found does not count as a miss, since it is not added to the cache.
+     */
+    @Nullable
+    List<Analysis> getIfPresent(String word) {
+        final Node cached = map.get(word);
+        if (cached == null) return null;
+        hits.increment();
+        if (cached.frequency < Integer.MAX_VALUE) cached.frequency++;
+        return cached.analyses;
+    }
+
+    /** Evicts entries until the cache is light enough, unless another thread is already doing so. */
+    private void evict() {
+        if (!evictionLock.tryLock()) return;
+        try {
+            while (weight.get() > maximumWeight && !map.isEmpty()) {
+                Node victim = null;
+                for (int i = 0; i < SAMPLE_SIZE; i++) {
+                    if (hand == null || !hand.hasNext()) {
+                        hand = map.values().iterator();
+                        if (!hand.hasNext()) break;
+                    }
+                    final Node node = hand.next();
+                    if (victim == null || node.frequency < victim.frequency) victim = node;
+                }
+                if (victim == null) break;
+                if (map.remove(victim.word, victim)) {
+                    weight.addAndGet(-victim.weight);
+                    evictions.increment();
+                }
+                if (++evictionsSinceAging >= (long) AGING_PERIOD * map.size()) {
+                    for (Node node : map.values()) node.frequency >>>= 1;
+                    evictionsSinceAging = 0;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** Removes every entry from this cache. The counts of hits, misses, and evictions are not reset. */
+    public void clear() {
+        for (Node node : map.values())
+            if (map.remove(node.word, node)) weight.addAndGet(-node.weight);
+    }
+
+    /**
+     * Returns the number of words in this cache.
+     * @return the number of words in this cache.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns the total weight of the entries in this cache, which is the same as {@link #size()} if this cache has no weigher.
+     * @return the total weight of the entries in this cache.
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Returns the number of times that a word's analyses were found in this cache.
+     * @return the number of cache hits.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of times that a word's analyses were not found in this cache, and had to be computed.
+     * @return the number of cache misses.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries that have been evicted from this cache to keep it under its maximum weight.
+     * Entries removed by {@link #clear()} are not counted.
+     * @return the number of evictions.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits, or 1 if there have been no lookups.
+     * @return the hit rate of this cache, from 0 to 1.
+     */
+    public double hitRate() {
+        final long hitCount = hitCount(), lookupCount = hitCount + missCount();
+        return (lookupCount == 0 ? 1.0 : (double) hitCount / lookupCount);
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisCache{size=" + size() + ", weight=" + weight() + ", maximumWeight=" + maximumWeight
+                + ", hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount() + "}";
+    }
+}
@@ -1,9 +1,8 @@
 package io.github.mathmaster13.aspenlangs.fynotek;
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A class for handling words in Fynotek, a conlang by mochaspen, in both its modern and old form.
@@ -18,21 +17,22 @@ import java.util.regex.Pattern;
  */
 public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord {
     /**
-     * The part of a Fynotek word before its final vowel or diphthong.
-     * @see #BaseFynotekWord(String)
+     * The whole word. Its beginning, final vowel or diphthong, and end are stored as indices into this String, so that they do not have to be concatenated.
+     * @see #toString()
      */
-    public final String beginning;
+    final String text;
     /**
-     * A Fynotek word's final vowel or diphthong.
-     * @see #BaseFynotekWord(String)
-     * @see #ablaut(Ablaut)
+     * The index of the start of this word's final vowel or diphthong in {@link #text}.
+     * @see #getBeginning()
      */
-    public final String vowels;
+    final int vowelsStart;
     /**
-     * The part of a Fynotek word after its final vowel or diphthong.
-     * @see #BaseFynotekWord(String)
+     * The index of the end of this word's final vowel or diphthong in {@link #text}.
+     * @see #getEnd()
      */
-    public final String end;
+    final int vowelsEnd;
+    /** This word's hash code, or 0 if it has not been computed yet. */
+    private int hash;
     /**
      * Represents the case or tense that this word is marked with.
      * A <code>null</code> value represents a word's root form.
@@ -49,20 +49,52 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
     public final Inflection inflection; // This class expects you to only create objects from root words, not marked forms. Create marked words with nounCase(), verbTense(), or match(), and the method will mark the word as such.
 
     // Constants
-    private static final char[] vowelList = { 'a', 'e', 'i', 'o', 'u', 'y' };
     /**
      * A list of all stops in Fynotek, in its modern or old form. Used internally in <code>isValidSequence</code>.
-     @see #isValidSequence(String, String, byte, boolean)
+     * @see OldFynotekWord#isValidSequence(String)
      */
     protected static final char[] stopList = { 'p', 't', 'k', '\'' };
 
+    private static final int TENSE_COUNT = Tense.values().length;
+
     /**
      * Returns a String representation of this word.
      * @return String representation of this word.
      */
     @Override
     public String toString() {
-        return (beginning + vowels + end);
+        return text;
+    }
+
+    /**
+     * Returns the part of this word before its final vowel or diphthong.
+     * @return the part of this word before its final vowel or diphthong.
+     * @see #BaseFynotekWord(String)
+     * @since 4.0
+     */
+    public String getBeginning() {
+        return text.substring(0, vowelsStart);
+    }
+
+    /**
+     * Returns this word's final vowel or diphthong.
+     * @return this word's final vowel or diphthong.
+     * @see #BaseFynotekWord(String)
+     * @see #ablaut(Ablaut)
+     * @since 4.0
+     */
+    public String getVowels() {
+        return text.substring(vowelsStart, vowelsEnd);
+    }
+
+    /**
+     * Returns the part of this word after its final vowel or diphthong.
+     * @return the part of this word after its final vowel or diphthong.
+     * @see #BaseFynotekWord(String)
+     * @since 4.0
+     */
+    public String getEnd() {
+        return text.substring(vowelsEnd);
     }
 
     /**
@@ -78,19 +110,26 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
 
         BaseFynotekWord that = (BaseFynotekWord) o;
 
-        if (!beginning.equals(that.beginning)) return false;
-        if (!vowels.equals(that.vowels)) return false;
-        if (!end.equals(that.end)) return false;
+        if (vowelsStart != that.vowelsStart) return false;
+        if (vowelsEnd != that.vowelsEnd) return false;
+        if (!text.equals(that.text)) return false;
         return Objects.equals(inflection, that.inflection);
     }
 
-    /** Generated by IntellIJ IDEA Community. */
+    /**
+     * Generated by IntellIJ IDEA Community.
+     * The hash code is only computed once, since words are immutable.
+     */
     @Override
     public int hashCode() {
-        int result = beginning.hashCode();
-        result = 31 * result + vowels.hashCode();
-        result = 31 * result + end.hashCode();
-        result = 31 * result + (inflection != null ? inflection.hashCode() : 0);
+        int result = hash;
+        if (result == 0) {
+            result = text.hashCode();
+            result = 31 * result + vowelsStart;
+            result = 31 * result + vowelsEnd;
+            result = 31 * result + (inflection != null ? inflection.hashCode() : 0);
+            hash = result;
+        }
         return result;
     }
 
@@ -119,10 +158,9 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      */
     public BaseFynotekWord(String word, @Nullable Inflection inflection) {
         this.inflection = inflection;
-        String[] wordAsArray = separateVowels(word);
-        beginning = wordAsArray[0];
-        vowels = wordAsArray[1];
-        end = wordAsArray[2];
+        text = word.trim().toLowerCase(); // Both calls return the same String if nothing changes.
+        vowelsEnd = vowelsEnd(text, 0, text.length());
+        vowelsStart = vowelsStart(text, 0, vowelsEnd);
     }
 
     // Private constructors
@@ -132,15 +170,26 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      * @param vowels a word's final vowel or diphthong.
      * @param end the part of a word after its final vowel or diphthong.
      * @param inflection this word's inflection, or <code>null</code> if it does not have one.
-     * @see #beginning
-     * @see #vowels
-     * @see #end
+     * @see #getBeginning()
+     * @see #getVowels()
+     * @see #getEnd()
      * @see #inflection
      */
     protected BaseFynotekWord(String beginning, String vowels, String end, @Nullable Inflection inflection) {
-        this.beginning = beginning;
-        this.vowels = vowels;
-        this.end = end;
+        this(beginning + vowels + end, beginning.length(), beginning.length() + vowels.length(), inflection);
+    }
+
+    /**
+     * Creates a BaseFynotekWord from the whole word and the indices of its final vowel or diphthong.
+     * @param text the whole word.
+     * @param vowelsStart the index of the start of the word's final vowel or diphthong.
+     * @param vowelsEnd the index of the end of the word's final vowel or diphthong.
+     * @param inflection this word's inflection, or <code>null</code> if it does not have one.
+     */
+    BaseFynotekWord(String text, int vowelsStart, int vowelsEnd, @Nullable Inflection inflection) {
+        this.text = text;
+        this.vowelsStart = vowelsStart;
+        this.vowelsEnd = vowelsEnd;
         this.inflection = inflection;
     }
 
@@ -153,9 +202,9 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      * @param word the word to be copied to the new BaseFynotekWord.
      */
     protected BaseFynotekWord(BaseFynotekWord word) {
-        beginning = word.beginning;
-        vowels = word.vowels;
-        end = word.end;
+        text = word.text;
+        vowelsStart = word.vowelsStart;
+        vowelsEnd = word.vowelsEnd;
         inflection = word.inflection;
     }
 
@@ -175,95 +224,36 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      * @return <code>true</code> if and only if <code>letter</code> is a vowel.
      */
     protected static boolean isVowel(char letter) {
-        for (char i : vowelList) if (letter == i) return true;
-        return false;
+        return switch (letter) {
+            case 'a', 'e', 'i', 'o', 'u', 'y' -> true;
+            default -> false;
+        };
     }
 
-    private static boolean isStop_internal(char letter) {
-        for (char i : stopList) {
-            if (letter == i)
-                return true;
-        }
-        return false;
+    /**
+     * Scans <code>word</code> backwards from <code>to</code> and returns the index just after its final vowel,
+     * or <code>from</code> if there are no vowels between <code>from</code> and <code>to</code>.
+     * Letters are compared case-insensitively. Used internally in place of a regex, so that no state is shared between threads.
+     * @see #vowelsStart(CharSequence, int, int)
+     */
+    static int vowelsEnd(CharSequence word, int from, int to) {
+        for (int i = to; i > from; i--)
+            if (isVowel(Character.toLowerCase(word.charAt(i - 1))))
+                return i;
+        return from;
     }
 
     /**
-     * A back-end for the <code>isValidSequence</code> functions in this class' subclasses. As such, implementation details will not be provided.
-     * @return <code>true</code> if <code>sequence</code> is a valid sequence, and <code>false</code> if not.
-     * @see OldFynotekWord#isValidSequence(String)
-     * @see FynotekWord#isValidSequence(String)
-     */
-    protected static boolean isValidSequence(String sequence, String regex, byte maxConsonants, boolean checkForSameConsonants) { // If stuff goes wrong try changing the byte to an int. Also, !checkForSameConsonants is used to check for if you should apply the special end cases for consonants.
-        sequence = sequence.toLowerCase().trim();
-
-        // Blank string check
-        if (sequence.isEmpty())
-            return false;
-
-        // Orthographic validity check
-        if (!sequence.replaceAll(regex, "").isEmpty())
-            return false;
-
-        // Check for a multiple-word sequence
-        final String[] wordArray = sequence.split("\\s+");
-        if (wordArray.length == 0)
-            return false;
-        if (wordArray.length > 1) {
-            boolean output = true;
-            for (String j : wordArray)
-                output = (isValidSequence(j, regex, maxConsonants, checkForSameConsonants) && output);
-            return output;
-        }
-
-        // Phonotactic vallidity check
-        int i = 0;
-        while (i < sequence.length()) {
-            char testChar = sequence.charAt(i);
-            if (isVowel(testChar)) {
-                if (i > sequence.length() - 3)
-                    return true; // If we get to this point, no VVV can occur.
-                // VVV check
-                int j;
-                for (j = i + 1; j < sequence.length(); j++)
-                    if (!isVowel(sequence.charAt(j)))
-                        break;
-                if (j - i > 2)
-                    return false;
-                i = j;
-
-            } else {
-                // Consonant check
-                int j;
-                for (j = i + 1; j < sequence.length(); j++)
-                    if (isVowel(sequence.charAt(j)))
-                        break;
-                if (j - i + (!checkForSameConsonants && (i == 0 || j == sequence.length()) ? 1 : 0) > maxConsonants)
-                    return false;
-
-                // Same character check, if applicable
-                if (checkForSameConsonants) {
-                    char checkForSameChar = testChar;
-                    for (int k = i + 1; k < j; k++) {
-                        char c = sequence.charAt(k);
-                        if (c == checkForSameChar)
-                            return false;
-                        checkForSameChar = c;
-                    }
-                }
-
-                // Stop+Stop check
-                boolean stopCheck = isStop_internal(testChar);
-                for (int l = i + 1; l < j; l++) {
-                    boolean currentCharIsStop = isStop_internal(sequence.charAt(l));
-                    if (stopCheck && currentCharIsStop)
-                        return false;
-                    stopCheck = currentCharIsStop;
-                }
-
-                i = j;
-            }
-        }
-        return true;
+     * Returns the index of the start of the final vowel or diphthong (at most two vowels) ending at <code>vowelsEnd</code>.
+     * If <code>vowelsEnd == from</code> (there are no vowels), <code>from</code> is returned.
+     * @see #vowelsEnd(CharSequence, int, int)
+     */
+    static int vowelsStart(CharSequence word, int from, int vowelsEnd) {
+        if (vowelsEnd == from) return from;
+        int start = vowelsEnd - 1;
+        if (start > from && isVowel(Character.toLowerCase(word.charAt(start - 1))))
+            start--;
+        return start;
     }
 
     // Public methods
@@ -285,8 +275,6 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      */
     public abstract BaseFynotekWord ablaut(Ablaut ablaut);
 
-    /** Looks for the last two vowels in a word. */
-    private static final Matcher LAST_VOWELS_MATCHER = Pattern.compile("([aeiouy]{1,2})[^aeiouy]*\\z").matcher("");
     /**
      * Returns an array of 3 Strings: the first containing the part of <code>word</code> before its final vowel
      * or diphthong, the second containing its final vowel or diphthong, and the third containing the part
@@ -294,22 +282,42 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
      * Leading and trailing whitespace is ignored (the {@link String#trim()} method is called on <code>word</code>),
      * and the word will always be converted to lowercase.
      * If a word has no vowels (as defined by {@link #isVowel(char)}), the word is placed as the third string.
+     *
+     * This method is thread-safe.
      * @param word the word to be parsed for final vowels
      * @return an array containing <code>word</code> separated by its final vowel or diphthong.
      * @since 3.0
      */
     public static String[] separateVowels(String word) {
         word = word.trim().toLowerCase(); // TODO: Change implementation to preserve capitalization (maybe?)
+        final int vowelsEnd = vowelsEnd(word, 0, word.length());
+        final int vowelsStart = vowelsStart(word, 0, vowelsEnd);
+        return new String[] {
+            word.substring(0, vowelsStart),
+            word.substring(vowelsStart, vowelsEnd),
+            word.substring(vowelsEnd)
+        };
+    }
 
-        LAST_VOWELS_MATCHER.reset(word);
-        if (LAST_VOWELS_MATCHER.find())
-            return new String[] {
-                word.substring(0, LAST_VOWELS_MATCHER.start(1)),
-                LAST_VOWELS_MATCHER.group(1),
-                word.substring(LAST_VOWELS_MATCHER.end(1))
-            };
-        else // no vowels? (megamind)
-            return new String[] {"", "", word};
+    /**
+     * Equivalent to {@link #separateVowels(String)}, but accepts any <code>CharSequence</code>.
+     * The sequence is scanned in place, so no trimmed or lowercased copy of the whole sequence is made;
+     * only the three returned Strings are created.
+     * @param word the word to be parsed for final vowels
+     * @return an array containing <code>word</code> separated by its final vowel or diphthong.
+     * @see #separateVowels(String)
+     */
+    public static String[] separateVowels(CharSequence word) {
+        int from = 0, to = word.length();
+        while (from < to && word.charAt(from) <= ' ') from++;
+        while (to > from && word.charAt(to - 1) <= ' ') to--;
+        final int vowelsEnd = vowelsEnd(word, from, to);
+        final int vowelsStart = vowelsStart(word, from, vowelsEnd);
+        return new String[] {
+            word.subSequence(from, vowelsStart).toString().toLowerCase(),
+            word.subSequence(vowelsStart, vowelsEnd).toString().toLowerCase(),
+            word.subSequence(vowelsEnd, to).toString().toLowerCase()
+        };
     }
 
     /**
@@ -379,6 +387,31 @@ public abstract sealed class BaseFynotekWord permits FynotekWord, OldFynotekWord
         return (inflection != null);
     }
 
+    /**
+     * Returns every inflected form of this word, in the same order as {@link Inflection#values}.
+     * That is, the element at index <code>i</code> is this word inflected for <code>Inflection.values[i]</code>.
+     * If this word cannot be inflected for an inflection (for example, if doing so would throw an exception), the corresponding element is <code>null</code>.
+     *
+     * All forms are computed together the first time this method is called, and the result is cached,
+     * so later calls (and later calls to {@link #inflect(Inflection)}) do not create any new objects.
+     * The returned list is unmodifiable.
+     * @return every inflected form of this word.
+     * @see Inflection#values
+     * @see #inflect(Inflection)
+     * @since 4.0
+     */
+    public abstract List<? extends BaseFynotekWord> paradigm();
+
+    /**
+     * Returns the index of <code>inflection</code> in {@link Inflection#values}. Used internally to index paradigms.
+     * @see #paradigm()
+     */
+    static int indexOf(Inflection inflection) {
+        if (inflection instanceof Tense tenseOfVerb) return tenseOfVerb.ordinal();
+        if (inflection instanceof FynotekWord.Case caseOfNoun) return TENSE_COUNT + caseOfNoun.ordinal();
+        return SpecificInflection.values.length + ((Ablaut) inflection).ordinal();
+    }
+
     /**
      * Returns a copy of this word with a suffix added to mark the first, second, or third person.
      *
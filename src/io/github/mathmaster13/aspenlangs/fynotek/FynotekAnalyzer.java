@@ -0,0 +1,864 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import io.github.mathmaster13.aspenlangs.fynotek.Analysis.PartOfSpeech;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Ablaut;
+
+import javax.annotation.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses Fynotek words into individual morphemes, using a lexicon of content words, pronouns, and possessor suffixes.
+ * A FynotekAnalyzer is built once from its lexicon, which it indexes so that no part of the lexicon needs to be scanned to analyze a word.
+ * Every word that can begin a morpheme is stored in a {@link FynotekDictionary}, so that a word is only split where a morpheme can actually start.
+ * All instances of this class are immutable and thread-safe.
+ *
+ * Indexing a lexicon takes much longer than analyzing a word, so an analyzer can be written to a binary snapshot with {@link #writeTo(DataOutput)},
+ * which {@link #readFrom(DataInput)} reads back without indexing the lexicon again.
+ *
+ * Proper nouns are not supported.
+ * @author mathmaster13
+ * @see Analysis
+ * @since 4.0
+ */
+public final class FynotekAnalyzer {
+    // Constants
+    /** The roots of Fynotek numbers, where the root at index <code>i</code> means <code>i</code>. */
+    private static final String[] NUMBER_ROOTS = {"fui", "ay", "fo", "us", "nos", "pur"};
+    /** The suffixes of Fynotek numbers, where the suffix at index <code>i</code> multiplies the exponent by 2<sup>i</sup>. */
+    private static final String[] NUMBER_SUFFIXES = {"po", "pura", "poña", "sola", "manta", "tauwa"};
+    private static final String[] ATTACHED_NUMBER_SUFFIXES = {"yla", "ylarea", "rea"};
+    private static final String[] DETACHED_NUMBER_SUFFIXES = {"rea", "tfaa", "ejen", "jeaj", "ñytuh", "ñytejen"};
+    private static final String[] SUFFIXES = {"ñy", "a", "o", "ñya", "ñyo", "ak", "akñy"};
+    /**
+     * The default number of words at which {@link #analyzeAll(List)} starts analyzing words in parallel.
+     * @see #analyzeAll(List, int)
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+    /** The number of words that {@link #analyzeAll(Stream)} reads from its input at a time. */
+    private static final int BATCH_SIZE = 1 << 16;
+    /** The first bytes of every snapshot written by {@link #writeTo(DataOutput)}: "FYNL" in ASCII. */
+    private static final int SNAPSHOT_MAGIC = 0x46594E4C;
+    /**
+     * The version of the snapshot format written by {@link #writeTo(DataOutput)}, which changes whenever the format does.
+     * {@link #readFrom(DataInput)} only reads snapshots of this version.
+     */
+    public static final int SNAPSHOT_VERSION = 2;
+    private static final AblautIndex NUMBER_ABLAUTS = AblautIndex.of(List.of(NUMBER_ROOTS), List.of());
+
+    // Categories of words in the dictionary, which are combined in each word's payload
+    private static final int CONTENT_WORD = 1;
+    private static final int PRONOUN = 1 << 1;
+    /** An ablaut form of a content word, including the content word itself. */
+    private static final int ABLAUT_FORM = 1 << 2;
+    /** An ablaut form of a number root, including the number root itself. */
+    private static final int NUMBER_FORM = 1 << 3;
+    /** "ñojera", which begins every form of "ñojera" with more than one "jera". */
+    private static final int JERA = 1 << 4;
+    private static final int POSSESSOR_SUFFIX = 1 << 5;
+
+    /**
+     * A suffix that can be stripped from a word, with everything needed to analyze it computed in advance.
+     * @param text the suffix as it is written.
+     * @param analysis the analysis of the suffix.
+     * @param allowedWith the suffix can only be used on a word that could be one of these parts of speech.
+     * @param limit the largest number that the suffix can be used with, or -1 if it has no limit or is not a number suffix.
+     */
+    private record Suffix(String text, Analysis analysis, Set<PartOfSpeech> allowedWith, int limit) {}
+
+    private static final SuffixTrie<Suffix> SUFFIX_TRIE = suffixTrie(List.of(SUFFIXES), suffix -> new Suffix(suffix,
+            new Analysis(suffixToText(suffix), suffixToPartsOfSpeech(suffix)),
+            (suffix.startsWith("ak") ? PartOfSpeech.NOUN_OR_MODIFIER : suffix.equals("ñy") ? PartOfSpeech.ALL : PartOfSpeech.VERB.asSet()), -1));
+    private static final SuffixTrie<Suffix> ATTACHED_NUMBER_SUFFIX_TRIE = suffixTrie(List.of(ATTACHED_NUMBER_SUFFIXES), suffix -> new Suffix(suffix,
+            new Analysis((suffix.equals("ylarea") ? List.of("yla", "rea") : List.of(suffix)), PartOfSpeech.NOUN_OR_MODIFIER), PartOfSpeech.ALL, limitOf(suffix)));
+    private static final SuffixTrie<Suffix> DETACHED_NUMBER_SUFFIX_TRIE = suffixTrie(List.of(DETACHED_NUMBER_SUFFIXES), suffix -> new Suffix(suffix,
+            new Analysis(suffix), PartOfSpeech.ALL, limitOf(suffix)));
+
+    private final List<String> pronouns;
+    private final List<String> possessorSuffixes;
+    /** Every content word, pronoun, ablaut form, number form, and possessor suffix, with its categories as its payload. */
+    private final FynotekDictionary dictionary;
+    /** Every possessor suffix, whose analysis marks the word as the possessive form of the corresponding pronoun. */
+    private final SuffixTrie<Suffix> possessorSuffixTrie;
+    /** The analysis of every possessor suffix used as a word by itself. */
+    private final HashMap<String, Analysis> possessorAnalyses = new HashMap<>();
+    /** Every ablaut form of every content word. */
+    private final AblautIndex ablauts;
+    /** The cache of analyses used by {@link #analyze(String)}, or <code>null</code> if there is none. */
+    @Nullable
+    private final AnalysisCache cache;
+
+    /**
+     * Creates a FynotekAnalyzer from a lexicon. Every word in the lexicon should be in lowercase.
+     * @param contentWords every content word, excluding numbers. Pronouns are content words, and are added automatically if they are not in this collection.
+     * @param pronouns every pronoun.
+     * @param possessorSuffixes the possessor suffix for each pronoun, in the same order as <code>pronouns</code>.
+     * @throws IllegalArgumentException if <code>pronouns</code> and <code>possessorSuffixes</code> are not the same size.
+     */
+    public FynotekAnalyzer(Collection<String> contentWords, List<String> pronouns, List<String> possessorSuffixes) throws IllegalArgumentException {
+        if (pronouns.size() != possessorSuffixes.size())
+            throw new IllegalArgumentException("Every pronoun must have exactly one possessor suffix");
+        final HashSet<String> words = new HashSet<>(contentWords);
+        words.addAll(pronouns);
+        this.pronouns = List.copyOf(pronouns);
+        this.possessorSuffixes = List.copyOf(possessorSuffixes);
+        this.possessorSuffixTrie = indexPossessorSuffixes(this.pronouns, this.possessorSuffixes, possessorAnalyses);
+        this.ablauts = AblautIndex.of(words, pronouns);
+        this.dictionary = dictionaryOf(words, this.pronouns, this.possessorSuffixes, ablauts);
+        this.cache = null;
+    }
+
+    // Private constructors
+    /** Creates a FynotekAnalyzer from a lexicon that has already been indexed. */
+    private FynotekAnalyzer(List<String> pronouns, List<String> possessorSuffixes, FynotekDictionary dictionary, AblautIndex ablauts) {
+        this.pronouns = pronouns;
+        this.possessorSuffixes = possessorSuffixes;
+        this.possessorSuffixTrie = indexPossessorSuffixes(pronouns, possessorSuffixes, possessorAnalyses);
+        this.ablauts = ablauts;
+        this.dictionary = dictionary;
+        this.cache = null;
+    }
+
+    private FynotekAnalyzer(FynotekAnalyzer analyzer, @Nullable AnalysisCache cache) {
+        this.pronouns = analyzer.pronouns;
+        this.possessorSuffixes = analyzer.possessorSuffixes;
+        this.dictionary = analyzer.dictionary;
+        this.possessorSuffixTrie = analyzer.possessorSuffixTrie;
+        this.possessorAnalyses.putAll(analyzer.possessorAnalyses);
+        this.ablauts = analyzer.ablauts;
+        this.cache = cache;
+    }
+
+    // Public methods
+    /**
+     * Returns every possible analysis of a Fynotek word, which should be in lowercase and should not be a proper noun.
+     * If no analyses are possible, an empty list is returned. The returned list is unmodifiable, and contains no duplicate analyses.
+     * This method does not check whether <code>word</code> is valid; use {@link FynotekWord#isValidSequence(String)} to do so.
+     *
+     * If this analyzer has a cache (see {@link #withCache(AnalysisCache)}), the analyses are taken from the cache if possible.
+     * @param word the word to analyze.
+     * @return every possible analysis of <code>word</code>.
+     */
+    public List<Analysis> analyze(String word) {
+        if (cache == null) return new Chart(word).analyze();
+        return cache.get(word, key -> new Chart(key).analyze());
+    }
+
+    /**
+     * Returns every possible analysis of a Fynotek word as a lazy stream, in the same order as {@link #analyze(String)} and without duplicates.
+     * Analyses are found as the stream is consumed, so a consumer that only needs the first few analyses (or only needs to know whether there are any)
+     * does not pay for finding every analysis of a highly ambiguous word.
+     * Each way of splitting the word into a root and an attached modifier is only analyzed once the stream reaches it.
+     *
+     * If this analyzer has a cache and <code>word</code> is in it, the cached analyses are used.
+     * Otherwise, the analyses found are not added to the cache, since the stream might not be consumed completely.
+     * @param word the word to analyze.
+     * @return a sequential stream of every possible analysis of <code>word</code>.
+     * @see #analyze(String)
+     */
+    public Stream<Analysis> analyses(String word) {
+        if (cache != null) {
+            final List<Analysis> cached = cache.getIfPresent(word);
+            if (cached != null) return cached.stream();
+        }
+        return new Chart(word).analyses();
+    }
+
+    /**
+     * Returns whether a Fynotek word has any possible analysis. This stops as soon as an analysis is found.
+     * @param word the word to analyze.
+     * @return whether {@link #analyze(String)} would return any analyses for <code>word</code>.
+     * @see #analyses(String)
+     */
+    public boolean hasAnalysis(String word) {
+        if (cache != null) {
+            final List<Analysis> cached = cache.getIfPresent(word);
+            if (cached != null) return !cached.isEmpty();
+        }
+        return new Chart(word).hasAnalysis();
+    }
+
+    /**
+     * Returns the words closest to <code>word</code> that this analyzer knows of, such as to suggest corrections for a misspelled word.
+     * The words that can be suggested are content words, pronouns, numbers, every ablaut form of each of them, and possessor suffixes.
+     * Words are ranked by their Levenshtein distance from <code>word</code>, and equally close words are in alphabetical order.
+     * @param word the word to find suggestions for, which should be in lowercase.
+     * @param maxDistance the maximum number of insertions, deletions, and substitutions needed to turn <code>word</code> into a suggestion, such as 1 or 2.
+     * @param limit the maximum number of suggestions.
+     * @return an unmodifiable list of at most <code>limit</code> suggestions, from the closest to the farthest.
+     * If <code>word</code> is itself one of these words, it is the first suggestion.
+     * @throws IllegalArgumentException if <code>maxDistance</code> or <code>limit</code> is negative.
+     * @see FynotekDictionary#suggest(CharSequence, int, int, java.util.function.IntPredicate)
+     */
+    public List<String> suggest(String word, int maxDistance, int limit) throws IllegalArgumentException {
+        final List<FynotekDictionary.Suggestion> suggestions = dictionary.suggest(word, maxDistance, limit, payload -> payload != JERA); // "ñojera" by itself is only a prefix
+        final String[] output = new String[suggestions.size()];
+        for (int i = 0; i < output.length; i++) output[i] = suggestions.get(i).word();
+        return List.of(output);
+    }
+
+    /**
+     * Returns an analyzer with the same lexicon as this one that uses <code>cache</code> to store and look up analyses.
+     * The lexicon is shared between the two analyzers, so this method is cheap.
+     * @param cache the cache to use, or <code>null</code> to not use a cache.
+     * @return an analyzer that uses <code>cache</code>.
+     * @see AnalysisCache
+     */
+    public FynotekAnalyzer withCache(@Nullable AnalysisCache cache) {
+        return new FynotekAnalyzer(this, cache);
+    }
+
+    /**
+     * Returns the cache used by this analyzer.
+     * @return the cache used by this analyzer, or <code>null</code> if it does not have one.
+     * @see #withCache(AnalysisCache)
+     */
+    public @Nullable AnalysisCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Writes this analyzer's lexicon and its indexes to <code>out</code> as a binary snapshot, which can be read by {@link #readFrom(DataInput)}.
+     * This analyzer's cache is not written.
+     * @param out the stream to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        writeStrings(out, pronouns);
+        writeStrings(out, possessorSuffixes);
+        dictionary.writeTo(out);
+        ablauts.writeTo(out);
+    }
+
+    /**
+     * Reads an analyzer from a binary snapshot written by {@link #writeTo(DataOutput)}.
+     * The analyzer that is read has the same lexicon as the one that was written, and no cache.
+     * @param in the stream to read from.
+     * @return the analyzer that was written to <code>in</code>.
+     * @throws IOException if an I/O error occurs, or if <code>in</code> does not contain a snapshot, or contains a snapshot from an incompatible version of this library.
+     */
+    public static FynotekAnalyzer readFrom(DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a FynotekAnalyzer snapshot");
+        final int version = in.readInt();
+        if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version: " + version);
+        final List<String> pronouns = readStrings(in), possessorSuffixes = readStrings(in);
+        if (pronouns.size() != possessorSuffixes.size()) throw new IOException("Every pronoun must have exactly one possessor suffix");
+        final FynotekDictionary dictionary = FynotekDictionary.readFrom(in);
+        return new FynotekAnalyzer(pronouns, possessorSuffixes, dictionary, AblautIndex.readFrom(in));
+    }
+
+    /**
+     * Returns every possible analysis of every word in <code>words</code>, in the same order as <code>words</code>.
+     * This is equivalent to calling {@link #analyze(String)} on every word, in order,
+     * except that the words are analyzed in parallel (using the common {@link ForkJoinPool}) if there are at least {@code parallelThreshold} of them.
+     *
+     * The words are split into contiguous chunks, and each chunk is analyzed by a single thread with its own cache of analyses,
+     * so a word that occurs more than once in a chunk is only analyzed once, and no cache is shared between threads.
+     * @param words the words to analyze.
+     * @param parallelThreshold the minimum number of words needed to analyze them in parallel.
+     * @return an unmodifiable list where each element is every possible analysis of the corresponding element of <code>words</code>, as an unmodifiable list.
+     * @see #analyze(String)
+     */
+    public List<List<Analysis>> analyzeAll(List<String> words, int parallelThreshold) {
+        final String[] input = words.toArray(new String[0]);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final List<Analysis>[] output = new List[input.length];
+        if (input.length < parallelThreshold) analyzeRange(input, output, 0, input.length);
+        else {
+            final int chunkCount = Math.min(input.length, 4 * ForkJoinPool.getCommonPoolParallelism());
+            IntStream.range(0, chunkCount).parallel().forEach(chunk ->
+                    analyzeRange(input, output, (int) ((long) input.length * chunk / chunkCount), (int) ((long) input.length * (chunk + 1) / chunkCount)));
+        }
+        return Collections.unmodifiableList(Arrays.asList(output));
+    }
+
+    /**
+     * Returns every possible analysis of every word in <code>words</code>, in the same order as <code>words</code>,
+     * in parallel if there are at least {@link #DEFAULT_PARALLEL_THRESHOLD} words.
+     * @param words the words to analyze.
+     * @return an unmodifiable list where each element is every possible analysis of the corresponding element of <code>words</code>, as an unmodifiable list.
+     * @see #analyzeAll(List, int)
+     */
+    public List<List<Analysis>> analyzeAll(List<String> words) {
+        return analyzeAll(words, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Returns a stream of every possible analysis of every word in <code>words</code>, in the same order as <code>words</code>.
+     * The words are read from <code>words</code> lazily, in batches of {@value #BATCH_SIZE}, and each batch is analyzed with {@link #analyzeAll(List)},
+     * so a stream of any length can be analyzed without holding all of it in memory.
+     * The returned stream is sequential, and closing it closes <code>words</code>.
+     * @param words the words to analyze.
+     * @return a stream where each element is every possible analysis of the corresponding element of <code>words</code>.
+     * @see #analyzeAll(List, int)
+     */
+    public Stream<List<Analysis>> analyzeAll(Stream<String> words) {
+        final Iterator<String> iterator = words.iterator();
+        final Iterator<List<String>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                if (!iterator.hasNext()) throw new NoSuchElementException();
+                final ArrayList<String> batch = new ArrayList<>();
+                while (batch.size() < BATCH_SIZE && iterator.hasNext()) batch.add(iterator.next());
+                return batch;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(batch -> analyzeAll(batch).stream())
+                .onClose(words::close);
+    }
+
+    private void analyzeRange(String[] input, List<Analysis>[] output, int from, int to) {
+        final HashMap<String, List<Analysis>> cache = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            List<Analysis> analyses = cache.get(input[i]);
+            if (analyses == null) cache.put(input[i], analyses = analyze(input[i]));
+            output[i] = analyses;
+        }
+    }
+
+    // Internal-use methods
+    /** Assuming that a word is a single word with no affixes (but it can have ablaut), give the possible dictionary matches. */
+    private List<Analysis> singleRootAblautAnalysis(String word) {
+        final List<Analysis> output = new ArrayList<>();
+        if (isCategory(word, CONTENT_WORD)) {
+            output.add(new Analysis(word));
+            return output;
+        }
+        // ñojera (if there is more than one jera)
+        final int jeraCount = jeraCount(word);
+        if (jeraCount > 0) {
+            output.add(new Analysis(jeraText(jeraCount)));
+            return output;
+        }
+
+        // We now know that this is an ablaut form (and not a root form)
+        checkForAblaut(ablauts, null, word, output);
+
+        // ñojera (if there is more than one jera), with ablaut
+        if (isJeraAblaut(word)) {
+            final List<Analysis> jeraAnalyses = new ArrayList<>();
+            final String root = "ñojera" + "jera".repeat((word.length() - 6) / 4);
+            checkForAblaut(AblautIndex.of(List.of(root), List.of()), null, word, jeraAnalyses);
+            for (Analysis analysis : jeraAnalyses)
+                output.add(new Analysis(List.of(jeraText((analysis.get(0).length() - 6) / 4), analysis.get(1)), PartOfSpeech.ALL));
+        }
+        return output;
+    }
+
+    /**
+     * Adds an analysis to <code>output</code> for every root in <code>index</code> that can be turned into <code>word</code> with ablaut.
+     * Only the ablauts of the letters in the final vowel or diphthong of <code>word</code> are checked (only the first letter if it is reduplicated),
+     * and reduplication ablaut is only checked if the final vowel is short or reduplicated.
+     * @param root the only root to check, or <code>null</code> to check every root.
+     */
+    private static void checkForAblaut(AblautIndex index, @Nullable String root, String word, List<Analysis> output) {
+        final List<AblautIndex.Entry> entries = index.lookup(word);
+        if (entries.isEmpty()) return;
+        final int vowelsEnd = BaseFynotekWord.vowelsEnd(word, 0, word.length());
+        final int vowelsStart = BaseFynotekWord.vowelsStart(word, 0, vowelsEnd);
+        final int vowelCount = vowelsEnd - vowelsStart;
+        final boolean reduplicated = (vowelCount == 2 && word.charAt(vowelsStart) == word.charAt(vowelsStart + 1));
+        for (AblautIndex.Entry entry : entries) {
+            if (root != null && !entry.root().equals(root)) continue;
+            final Ablaut ablaut = entry.ablaut();
+            final boolean isChecked = switch (ablaut) {
+                case DEFAULT -> false;
+                case REDUPLICATION -> (vowelCount == 1 || reduplicated);
+                default -> (vowelCount >= 1 && word.charAt(vowelsStart) == ablaut.asChar)
+                        || (vowelCount == 2 && !reduplicated && word.charAt(vowelsStart + 1) == ablaut.asChar);
+            };
+            if (isChecked) output.add(new Analysis(List.of(entry.root(), (ablaut == Ablaut.REDUPLICATION ? "reduplication" : ablaut.toString()) + " ablaut"), entry.partsOfSpeech()));
+        }
+    }
+
+    private List<Analysis> numericAnalysis(String word, boolean isAttachedModifier) {
+        // TODO date/time words
+        final List<Analysis> output = numericAblautAnalysis(word, !isAttachedModifier);
+        (isAttachedModifier ? ATTACHED_NUMBER_SUFFIX_TRIE : DETACHED_NUMBER_SUFFIX_TRIE).forEachMatch(word, 0, word.length(), (suffix, rootEnd) -> {
+            // Check if any analysis works assuming no filler letters
+            numericSuffixAnalysis(word.substring(0, rootEnd), suffix, isAttachedModifier, output);
+
+            // Check if filler letters are valid
+            if (rootEnd == 0 || !isFiller(word.charAt(rootEnd - 1))) return;
+            final String potentialRoot = word.substring(0, rootEnd - 1);
+            if (FynotekWord.isValidSequence(potentialRoot + suffix.text())) return; // If filler letters aren't necessary, they won't be used.
+            numericSuffixAnalysis(potentialRoot, suffix, isAttachedModifier, output);
+        });
+        return output;
+    }
+
+    private void numericSuffixAnalysis(String root, Suffix suffix, boolean isAttachedModifier, List<Analysis> output) {
+        for (Analysis analysis : numericAblautAnalysis(root, !isAttachedModifier)) {
+            if (suffix.limit() >= 0 && rootAnalysisToInt(analysis) > suffix.limit()) continue;
+            addIfPresent(output, analysis.plus(suffix.analysis()));
+        }
+    }
+
+    private List<Analysis> numericAblautAnalysis(String word, boolean checkForAblaut) {
+        final List<Analysis> output = new ArrayList<>();
+        if (word.length() < 2) return output; // if it's less than 2, it's not a number!
+        if (isNumberRoot(word)) {
+            output.add(new Analysis(word));
+            return output;
+        }
+
+        // ablaut only
+        if (checkForAblaut) checkForAblaut(NUMBER_ABLAUTS, null, word, output);
+        // If a word has no suffixes, it should not be possible to analyze it with a suffix.
+        if (!output.isEmpty()) return output;
+
+        // ablaut + suffix
+        // find the root number! cannot be "fui".
+        final List<Analysis> rootAnalyses = new ArrayList<>();
+        int rootLength = 0;
+        findRoot:
+        for (int i = 1; i < NUMBER_ROOTS.length; i++) {
+            final String potentialNumber = NUMBER_ROOTS[i];
+            // no ablaut
+            if (word.startsWith(potentialNumber)) {
+                rootAnalyses.add(new Analysis(potentialNumber));
+                rootLength = potentialNumber.length();
+                break;
+            }
+
+            // yes ablaut
+            // Test for a valid root. This will either be the same length or 1 more than the length of the root, so check both!
+            if (checkForAblaut)
+                for (int j = potentialNumber.length(); j <= Math.min(word.length(), potentialNumber.length() + 1); j++) {
+                    final int size = rootAnalyses.size();
+                    checkForAblaut(NUMBER_ABLAUTS, potentialNumber, word.substring(0, j), rootAnalyses);
+                    if (rootAnalyses.size() > size) {
+                        rootLength = j;
+                        break findRoot;
+                    }
+                }
+        }
+        if (rootLength == 0) return output; // if nothing shows up here, it's not a number!
+
+        // Thankfully, number suffixes shouldn't need filler letters!
+        int lengthToCut = rootLength;
+        final List<String> suffixes = new ArrayList<>();
+        for (String potentialSuffix : NUMBER_SUFFIXES) {
+            if (!word.startsWith(potentialSuffix, lengthToCut)) continue;
+            if (potentialSuffix.equals("po") && word.startsWith("ña", lengthToCut + 2)) continue;
+            lengthToCut += potentialSuffix.length();
+            suffixes.add(potentialSuffix);
+        }
+        if (lengthToCut == word.length()) { // If there are additional letters after the suffix, we have a problem.
+            final Analysis suffixAnalysis = new Analysis(suffixes, PartOfSpeech.ALL);
+            for (Analysis analysis : rootAnalyses) addIfPresent(output, analysis.plus(suffixAnalysis));
+        }
+        return output;
+    }
+
+    private List<Analysis> attachedModifierAnalysis(String word, Set<PartOfSpeech> possiblePartsOfSpeech) {
+        final List<Analysis> output = new ArrayList<>();
+        // Check for single content word analyses
+        if (isCategory(word, CONTENT_WORD)) output.add(new Analysis(word));
+        // ñojera (if there is more than one jera)
+        final int jeraCount = jeraCount(word);
+        if (jeraCount > 0) output.add(new Analysis(jeraText(jeraCount)));
+        output.addAll(numericAnalysis(word, true));
+
+        // If the word is a verb, possessor suffixes don't apply!
+        if (possiblePartsOfSpeech.equals(PartOfSpeech.VERB.asSet())) return output;
+
+        // Check for solely a possessor suffix
+        final Analysis possessorAnalysis = possessorAnalyses.get(word);
+        if (possessorAnalysis != null) output.add(possessorAnalysis);
+
+        possessorSuffixTrie.forEachMatch(word, 0, word.length(), (suffix, rootEnd) -> {
+            // Check if any analysis works assuming no filler letters
+            possessorAnalysis(word.substring(0, rootEnd), word, suffix.analysis(), output);
+
+            // Check if filler letters are valid
+            if (rootEnd == 0 || !isFiller(word.charAt(rootEnd - 1))) return;
+            final String potentialRoot = word.substring(0, rootEnd - 1);
+            if (FynotekWord.isValidSequence(potentialRoot + suffix.text())) return; // If filler letters aren't necessary, they won't be used.
+            possessorAnalysis(potentialRoot, word, suffix.analysis(), output);
+        });
+        return output;
+    }
+
+    /** Adds every analysis of a root followed by a possessor suffix to <code>output</code>. */
+    private void possessorAnalysis(String root, String word, Analysis suffixAnalysis, List<Analysis> output) {
+        if (isCategory(root, CONTENT_WORD)) addIfPresent(output, new Analysis(root).plus(suffixAnalysis));
+        // ñojera (if there is more than one jera)
+        // The number of "jera"s is counted from the whole word, including the suffix.
+        if (jeraCount(root) > 0) addIfPresent(output, new Analysis(jeraText((word.length() - 6) / 4)).plus(suffixAnalysis));
+        for (Analysis analysis : numericAnalysis(root, true)) addIfPresent(output, analysis.plus(suffixAnalysis));
+    }
+
+    // Despite not needing this to check if a number is out of range, it may be useful later.
+    private static int rootAnalysisToInt(Analysis analysis) throws IllegalArgumentException {
+        int base = -1;
+        for (int i = 0; i < NUMBER_ROOTS.length; i++)
+            if (analysis.getText().contains(NUMBER_ROOTS[i])) {
+                base = i;
+                break;
+            }
+        if (base == -1) throw new IllegalArgumentException("Not a number");
+        if (base == 0) return 0;
+        int exponent = 0;
+        for (int i = 0; i < NUMBER_SUFFIXES.length; i++)
+            if (analysis.getText().contains(NUMBER_SUFFIXES[i])) exponent += 1 << i;
+        return base * (int) Math.pow(6, exponent);
+    }
+
+    /** Returns the largest number that can be marked with a date or time suffix, or -1 if the suffix has no limit. */
+    private static int limitOf(String suffix) {
+        return switch (suffix) {
+            case "jeaj" -> 8;
+            case "ñytuh" -> 5;
+            case "ñytejen" -> 12;
+            default -> -1;
+        };
+    }
+
+    private static List<String> suffixToText(String suffix) {
+        return switch (suffix) {
+            case "akñy" -> List.of("ak", "ñy");
+            case "ñya" -> List.of("ñy", "a");
+            case "ñyo" -> List.of("ñy", "o");
+            default -> List.of(suffix);
+        };
+    }
+
+    private static Set<PartOfSpeech> suffixToPartsOfSpeech(String suffix) {
+        if (suffix.startsWith("ak")) return PartOfSpeech.NOUN_OR_MODIFIER;
+        if (suffix.endsWith("a") || suffix.endsWith("o")) return PartOfSpeech.VERB_OR_MODIFIER;
+        return PartOfSpeech.ALL;
+    }
+
+    // Convenience functions
+    /** Whether <code>word</code> is in the dictionary with the given category. */
+    private boolean isCategory(String word, int category) {
+        final int payload = dictionary.get(word);
+        return payload >= 0 && (payload & category) != 0;
+    }
+
+    private static FynotekDictionary dictionaryOf(Set<String> contentWords, List<String> pronouns, List<String> possessorSuffixes, AblautIndex ablauts) {
+        final HashMap<String, Integer> entries = new HashMap<>();
+        for (String word : contentWords) entries.merge(word, CONTENT_WORD, (a, b) -> a | b);
+        for (String word : pronouns) entries.merge(word, PRONOUN, (a, b) -> a | b);
+        for (String word : ablauts.forms()) entries.merge(word, ABLAUT_FORM, (a, b) -> a | b);
+        for (String word : NUMBER_ABLAUTS.forms()) entries.merge(word, NUMBER_FORM, (a, b) -> a | b);
+        entries.merge("ñojera", JERA, (a, b) -> a | b);
+        for (String word : possessorSuffixes) entries.merge(word, POSSESSOR_SUFFIX, (a, b) -> a | b);
+        return new FynotekDictionary(entries);
+    }
+
+    /** Returns a trie of every possessor suffix, and adds the analysis of each possessor suffix used as a word by itself to <code>possessorAnalyses</code>. */
+    private static SuffixTrie<Suffix> indexPossessorSuffixes(List<String> pronouns, List<String> possessorSuffixes, Map<String, Analysis> possessorAnalyses) {
+        final ArrayList<Suffix> possessors = new ArrayList<>(possessorSuffixes.size());
+        for (int i = 0; i < possessorSuffixes.size(); i++) {
+            final Analysis analysis = new Analysis("possessive form of \"" + pronouns.get(i) + "\"", PartOfSpeech.NOUN_OR_MODIFIER);
+            possessors.add(new Suffix(possessorSuffixes.get(i), analysis, PartOfSpeech.NOUN_OR_MODIFIER, -1));
+            possessorAnalyses.putIfAbsent(possessorSuffixes.get(i), analysis);
+        }
+        return new SuffixTrie<>(possessorSuffixes, possessors);
+    }
+
+    private static void writeStrings(DataOutput out, Collection<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String string : strings) out.writeUTF(string);
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) throw new IOException("Invalid list size: " + size);
+        final String[] strings = new String[size];
+        for (int i = 0; i < size; i++) strings[i] = in.readUTF();
+        return List.of(strings);
+    }
+
+    private static SuffixTrie<Suffix> suffixTrie(List<String> suffixes, Function<String, Suffix> toSuffix) {
+        final ArrayList<Suffix> values = new ArrayList<>(suffixes.size());
+        for (String suffix : suffixes) values.add(toSuffix.apply(suffix));
+        return new SuffixTrie<>(suffixes, values);
+    }
+
+    private static boolean isNumberRoot(String word) {
+        for (String root : NUMBER_ROOTS)
+            if (root.equals(word)) return true;
+        return false;
+    }
+
+    /** Whether a letter can be infixed between morphemes: <i>a</i> or <i>n</i>. */
+    private static boolean isFiller(char letter) {
+        return letter == 'a' || letter == 'n';
+    }
+
+    private static void addIfPresent(Collection<Analysis> output, @Nullable Analysis analysis) {
+        if (analysis != null) output.add(analysis);
+    }
+
+    /** Returns <code>k</code> if <code>word</code> is "ñojera" followed by "jera" <code>k</code> times, where <code>k &gt; 0</code>, or 0 if it is not. */
+    private static int jeraCount(String word) {
+        if (!word.startsWith("ñojera") || word.length() < 10 || (word.length() - 6) % 4 != 0) return 0;
+        for (int i = 6; i < word.length(); i += 4)
+            if (!word.startsWith("jera", i)) return 0;
+        return (word.length() - 6) / 4;
+    }
+
+    /** Whether <code>word</code> is "ñojera", followed by "jera" any number of times, followed by "jer" and one or two vowels. */
+    private static boolean isJeraAblaut(String word) {
+        if (!word.startsWith("ñojera")) return false;
+        for (int vowelCount = 1; vowelCount <= 2; vowelCount++) {
+            final int jerStart = word.length() - vowelCount - 3;
+            if (jerStart < 6 || (jerStart - 6) % 4 != 0 || !word.startsWith("jer", jerStart)) continue;
+            boolean matches = true;
+            for (int i = jerStart + 3; i < word.length(); i++)
+                if (!BaseFynotekWord.isVowel(word.charAt(i))) matches = false;
+            for (int i = 6; i < jerStart; i += 4)
+                if (!word.startsWith("jera", i)) matches = false;
+            if (matches) return true;
+        }
+        return false;
+    }
+
+    private static String jeraText(int jeraCount) {
+        return "(ñojera" + " + jera".repeat(jeraCount) + ")";
+    }
+
+    /**
+     * The state of a single call to {@link #analyze(String)}.
+     * Every substring of the word being analyzed is analyzed at most once for each kind of analysis and set of possible parts of speech,
+     * and the result is stored in a table keyed by the substring's start and end, the kind of analysis, and the parts of speech.
+     * Since only substrings of the word are ever analyzed, the number of analyses grows polynomially with the length of the word.
+     */
+    private final class Chart {
+        // Kinds of analysis
+        /** A root with ablaut, or a number. */
+        private static final int STEM = 0;
+        /** A single root that accounts for suffixes, but not prefixes. */
+        private static final int ROOT = 1;
+        /** An attached modifier. */
+        private static final int MODIFIER = 2;
+        /** Everything but the prefix. */
+        private static final int FULL = 3;
+
+        private final String word;
+        private final HashMap<Long, List<Analysis>> cells = new HashMap<>();
+        /**
+         * For every index of the word, the end of the shortest word in the dictionary that starts there, or <code>Integer.MAX_VALUE</code> if there is none.
+         * Every root and attached modifier begins with a word in the dictionary, so no root or modifier can start at an index where none does.
+         */
+        private final int[] firstMatchEnd;
+
+        Chart(String word) {
+            this.word = word;
+            firstMatchEnd = new int[word.length() + 1];
+            Arrays.fill(firstMatchEnd, Integer.MAX_VALUE);
+            for (int i = 0; i < word.length(); i++) {
+                final int start = i;
+                dictionary.forEachMatch(word, start, word.length(), (end, payload) -> firstMatchEnd[start] = Math.min(firstMatchEnd[start], end));
+            }
+        }
+
+        List<Analysis> analyze() {
+            final LinkedHashSet<Analysis> output = new LinkedHashSet<>(cell(FULL, 0, word.length(), PartOfSpeech.ALL)); // check for analyses without any prefix
+            if (!hasPrefix()) return List.copyOf(output);
+
+            final PartOfSpeech partOfSpeech = PartOfSpeech.ofPrefix(word.charAt(0));
+            final Analysis prefix = new Analysis(word.substring(0, 1), partOfSpeech.asSet());
+            // Check if any analysis works assuming no filler letters
+            for (Analysis analysis : cell(FULL, 1, word.length(), partOfSpeech.asSet()))
+                addIfPresent(output, prefix.plus(analysis));
+
+            // Check if filler letters are present
+            if (!hasPrefixFiller()) return List.copyOf(output);
+            for (Analysis analysis : cell(FULL, 2, word.length(), partOfSpeech.asSet()))
+                addIfPresent(output, prefix.plus(analysis));
+            return List.copyOf(output);
+        }
+
+        /** Returns the same analyses as {@link #analyze()}, in the same order, but only analyzes each part of the word when the stream reaches it. */
+        Stream<Analysis> analyses() {
+            Stream<Analysis> output = fullAnalysisStream(0, word.length(), PartOfSpeech.ALL); // check for analyses without any prefix
+            if (hasPrefix()) {
+                final PartOfSpeech partOfSpeech = PartOfSpeech.ofPrefix(word.charAt(0));
+                final Analysis prefix = new Analysis(word.substring(0, 1), partOfSpeech.asSet());
+                output = Stream.concat(output, fullAnalysisStream(1, word.length(), partOfSpeech.asSet()).map(prefix::plus));
+                if (hasPrefixFiller())
+                    output = Stream.concat(output, fullAnalysisStream(2, word.length(), partOfSpeech.asSet()).map(prefix::plus));
+            }
+            return output.filter(Objects::nonNull).distinct();
+        }
+
+        /** Whether {@link #analyze()} would return any analyses, stopping at the first one found. */
+        boolean hasAnalysis() {
+            if (hasFullAnalysis(0, word.length(), PartOfSpeech.ALL, null)) return true;
+            if (!hasPrefix()) return false;
+            final PartOfSpeech partOfSpeech = PartOfSpeech.ofPrefix(word.charAt(0));
+            final Analysis prefix = new Analysis(word.substring(0, 1), partOfSpeech.asSet());
+            return hasFullAnalysis(1, word.length(), partOfSpeech.asSet(), prefix)
+                    || (hasPrefixFiller() && hasFullAnalysis(2, word.length(), partOfSpeech.asSet(), prefix));
+        }
+
+        private boolean hasPrefix() {
+            return !word.isEmpty() && (word.charAt(0) == 'a' || word.charAt(0) == 'o' || word.charAt(0) == 'i');
+        }
+
+        /** Whether the prefix is followed by a filler letter that is necessary. */
+        private boolean hasPrefixFiller() {
+            return word.length() >= 2 && isFiller(word.charAt(1))
+                    && !FynotekWord.isValidSequence(word.charAt(0) + word.substring(2)); // If filler letters aren't necessary, they won't be used.
+        }
+
+        /**
+         * Returns the analyses of the given kind of the substring from <code>start</code> to <code>end</code>, without duplicates.
+         * The substring is only analyzed if it has not already been analyzed in the same way.
+         */
+        private List<Analysis> cell(int kind, int start, int end, Set<PartOfSpeech> possiblePartsOfSpeech) {
+            // Analyses that only depend on some of the parts of speech are shared between every set that has the same effect.
+            possiblePartsOfSpeech = switch (kind) {
+                case STEM -> PartOfSpeech.ALL;
+                case ROOT -> (!possiblePartsOfSpeech.contains(PartOfSpeech.VERB) ? PartOfSpeech.NOUN_OR_MODIFIER
+                        : possiblePartsOfSpeech.size() == 1 ? possiblePartsOfSpeech : PartOfSpeech.ALL);
+                case MODIFIER -> (possiblePartsOfSpeech.equals(PartOfSpeech.VERB.asSet()) ? possiblePartsOfSpeech : PartOfSpeech.ALL);
+                default -> possiblePartsOfSpeech;
+            };
+            // The substring is in the low bits of the key, so that keys are spread out in the table.
+            long key = (long) start * (word.length() + 1) + end | (long) kind << 32;
+            for (PartOfSpeech partOfSpeech : possiblePartsOfSpeech) key |= 1L << (34 + partOfSpeech.ordinal());
+            List<Analysis> output = cells.get(key);
+            if (output == null) {
+                final Collection<Analysis> analyses = switch (kind) {
+                    case STEM -> stemAnalysis(word.substring(start, end));
+                    case ROOT -> rootAnalysis(start, end, possiblePartsOfSpeech);
+                    case MODIFIER -> attachedModifierAnalysis(word.substring(start, end), possiblePartsOfSpeech);
+                    case FULL -> fullAnalysisNoPrefix(start, end, possiblePartsOfSpeech);
+                    default -> throw new AssertionError("Unknown kind of analysis: " + kind);
+                };
+                output = (analyses.isEmpty() ? List.of() : List.copyOf(new LinkedHashSet<>(analyses)));
+                cells.put(key, output);
+            }
+            return output;
+        }
+
+        private List<Analysis> stemAnalysis(String word) {
+            final List<Analysis> output = singleRootAblautAnalysis(word);
+            output.addAll(numericAnalysis(word, false));
+            return output;
+        }
+
+        private Collection<Analysis> fullAnalysisNoPrefix(int start, int end, Set<PartOfSpeech> possiblePartsOfSpeech) {
+            if (firstMatchEnd[start] > end) return List.of(); // No root can start here
+            final LinkedHashSet<Analysis> output = new LinkedHashSet<>(cell(ROOT, start, end, possiblePartsOfSpeech)); // Try to analyze the word as one word
+
+            for (int i = start + 1; i < end; i++) splitAnalysis(start, i, end, possiblePartsOfSpeech, output);
+            return output;
+        }
+
+        /** Returns the same analyses as {@link #fullAnalysisNoPrefix(int, int, Set)}, in the same order, but only analyzes each split when the stream reaches it. */
+        private Stream<Analysis> fullAnalysisStream(int start, int end, Set<PartOfSpeech> possiblePartsOfSpeech) {
+            if (firstMatchEnd[start] > end) return Stream.empty(); // No root can start here
+            return Stream.concat(
+                    Stream.of(start).flatMap(unused -> cell(ROOT, start, end, possiblePartsOfSpeech).stream()), // Try to analyze the word as one word
+                    IntStream.range(start + 1, end).mapToObj(i -> {
+                        final List<Analysis> output = new ArrayList<>();
+                        splitAnalysis(start, i, end, possiblePartsOfSpeech, output);
+                        return output;
+                    }).flatMap(List::stream));
+        }
+
+        /** Whether {@link #fullAnalysisNoPrefix(int, int, Set)} would return any analyses that can follow <code>prefix</code>, stopping at the first split that has one. */
+        private boolean hasFullAnalysis(int start, int end, Set<PartOfSpeech> possiblePartsOfSpeech, @Nullable Analysis prefix) {
+            if (firstMatchEnd[start] > end) return false; // No root can start here
+            if (canFollow(prefix, cell(ROOT, start, end, possiblePartsOfSpeech))) return true;
+            final List<Analysis> output = new ArrayList<>();
+            for (int i = start + 1; i < end; i++) {
+                splitAnalysis(start, i, end, possiblePartsOfSpeech, output);
+                if (canFollow(prefix, output)) return true;
+                output.clear();
+            }
+            return false;
+        }
+
+        private static boolean canFollow(@Nullable Analysis prefix, List<Analysis> analyses) {
+            if (prefix == null) return !analyses.isEmpty();
+            for (Analysis analysis : analyses)
+                if (prefix.plus(analysis) != null) return true;
+            return false;
+        }
+
+        /** Adds every analysis of the substring from <code>start</code> to <code>end</code> as a root followed by an attached modifier that starts at <code>modifierStart</code> to <code>output</code>. */
+        private void splitAnalysis(int start, int modifierStart, int end, Set<PartOfSpeech> possiblePartsOfSpeech, Collection<Analysis> output) {
+            if (firstMatchEnd[modifierStart] > end) return; // No attached modifier can start here
+            // Check if any analysis works assuming no filler letters
+            compoundAnalysis(start, modifierStart, modifierStart, end, possiblePartsOfSpeech, output);
+
+            // Check if filler letters are valid
+            if (!isFiller(word.charAt(modifierStart - 1))) return;
+            if (FynotekWord.isValidSequence(word.substring(start, modifierStart - 1) + word.substring(modifierStart, end))) return; // If filler letters aren't necessary, they won't be used.
+            compoundAnalysis(start, modifierStart - 1, modifierStart, end, possiblePartsOfSpeech, output);
+        }
+
+        /** Adds every analysis of a root followed by an attached modifier to <code>output</code>. */
+        private void compoundAnalysis(int start, int rootEnd, int modifierStart, int end, Set<PartOfSpeech> possiblePartsOfSpeech, Collection<Analysis> output) {
+            final List<Analysis> modifierAnalyses = cell(MODIFIER, modifierStart, end, possiblePartsOfSpeech);
+            if (modifierAnalyses.isEmpty()) return;
+            for (Analysis rootAnalysis : cell(ROOT, start, rootEnd, possiblePartsOfSpeech))
+                for (Analysis modifierAnalysis : modifierAnalyses) {
+                    // check for "ak" or lack thereof
+                    if (isNumberRoot(modifierAnalysis.get(0))
+                            // "ak" check is not necessary for pronouns, ordinals, or dates/times
+                            && !isCategory(rootAnalysis.get(0), PRONOUN)
+                            && !modifierAnalysis.getText().contains("rea")) {
+                        final boolean isPlural = !(modifierAnalysis.getText().contains("yla") || rootAnalysisToInt(modifierAnalysis) <= 1);
+                        if (isPlural != rootAnalysis.getText().contains("ak")) continue;
+                    }
+                    addIfPresent(output, rootAnalysis.plus(modifierAnalysis));
+                }
+        }
+
+        private Collection<Analysis> rootAnalysis(int start, int end, Set<PartOfSpeech> possiblePartsOfSpeech) {
+            final LinkedHashSet<Analysis> output = new LinkedHashSet<>(cell(STEM, start, end, PartOfSpeech.ALL)); // Check if any analysis works with no suffix
+
+            SUFFIX_TRIE.forEachMatch(word, start, end, (suffix, rootEnd) -> {
+                if (Collections.disjoint(suffix.allowedWith(), possiblePartsOfSpeech)) return;
+                // Check if any analysis works assuming no filler letters
+                for (Analysis analysis : cell(STEM, start, rootEnd, PartOfSpeech.ALL)) addIfPresent(output, analysis.plus(suffix.analysis()));
+
+                // Check if filler letters are valid
+                if (rootEnd == start || !isFiller(word.charAt(rootEnd - 1))) return;
+                if (FynotekWord.isValidSequence(word.substring(start, rootEnd - 1) + suffix.text())) return; // If filler letters aren't necessary, they won't be used.
+                for (Analysis analysis : cell(STEM, start, rootEnd - 1, PartOfSpeech.ALL)) addIfPresent(output, analysis.plus(suffix.analysis()));
+            });
+            // ak cannot be used on pronouns!
+            output.removeIf(analysis -> analysis.getText().contains("ak") && analysis.getText().stream().anyMatch(morpheme -> isCategory(morpheme, PRONOUN)));
+            return output;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A set of words stored as a minimal acyclic automaton, where each word has an <code>int</code> payload.
+ * Words that share a prefix share the states for that prefix, and words that share a suffix (and a payload) share the states for that suffix,
+ * so a dictionary takes much less memory than a set of Strings.
+ * Looking up a word takes time proportional to its length, and every word in the dictionary that starts at a given position of a String
+ * can be found in a single pass over the String.
+ * All instances of this class are immutable and thread-safe.
+ *
+ * The automaton is built with Daciuk's incremental algorithm for sorted input, which only keeps the states of the most recently added word unminimized.
+ * Words close to a misspelled word can be found with {@link #suggest(CharSequence, int, int)},
+ * which searches the automaton directly instead of comparing the misspelled word to every word in the dictionary.
+ * A dictionary can be written to a binary stream with {@link #writeTo(DataOutput)} and read back with {@link #readFrom(DataInput)}.
+ * @author mathmaster13
+ * @see FynotekAnalyzer
+ * @since 4.0
+ */
+public final class FynotekDictionary {
+    /** A function that is given every match found by {@link #forEachMatch(CharSequence, int, int, MatchConsumer)}. */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * Accepts a match.
+         * @param end the index, exclusive, where the matching word ends.
+         * @param payload the payload of the matching word.
+         */
+        void accept(int end, int payload);
+    }
+
+    /**
+     * A word found by {@link #suggest(CharSequence, int, int)}.
+     * @param word the word in the dictionary.
+     * @param distance the Levenshtein distance from the word that was searched for to <code>word</code>.
+     * @param payload the payload of <code>word</code>.
+     */
+    public record Suggestion(String word, int distance, int payload) {}
+
+    /** The index in {@link #labels} and {@link #targets} of the first transition of every state, plus one extra element for the end of the last state. */
+    private final int[] transitionStart;
+    /** The letter of every transition, sorted within each state. */
+    private final char[] labels;
+    /** The state that every transition leads to. */
+    private final int[] targets;
+    /** The payload of every state that ends a word, or -1 for every other state. */
+    private final int[] payloads;
+    private final int size;
+
+    /**
+     * Creates a dictionary of words that all have the same payload, 0.
+     * @param words every word in the dictionary. Duplicate words are ignored.
+     */
+    public FynotekDictionary(Collection<String> words) {
+        this(payloadsOf(words));
+    }
+
+    /**
+     * Creates a dictionary from every word and its payload.
+     * @param entries every word in the dictionary and its payload.
+     * @throws IllegalArgumentException if any payload is negative.
+     */
+    public FynotekDictionary(Map<String, Integer> entries) throws IllegalArgumentException {
+        final Builder builder = new Builder();
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(entries).entrySet()) {
+            if (entry.getValue() < 0) throw new IllegalArgumentException("Payload cannot be negative");
+            builder.add(entry.getKey(), entry.getValue());
+        }
+        final Builder.Node root = builder.finish();
+
+        // Number every state in breadth-first order, so that the initial state is 0.
+        final IdentityHashMap<Builder.Node, Integer> ids = new IdentityHashMap<>();
+        final ArrayList<Builder.Node> states = new ArrayList<>();
+        final ArrayDeque<Builder.Node> queue = new ArrayDeque<>();
+        ids.put(root, 0);
+        states.add(root);
+        queue.add(root);
+        int transitionCount = 0;
+        while (!queue.isEmpty()) {
+            final Builder.Node node = queue.remove();
+            transitionCount += node.children.size();
+            for (Builder.Node child : node.children)
+                if (ids.putIfAbsent(child, states.size()) == null) {
+                    states.add(child);
+                    queue.add(child);
+                }
+        }
+
+        transitionStart = new int[states.size() + 1];
+        labels = new char[transitionCount];
+        targets = new int[transitionCount];
+        payloads = new int[states.size()];
+        int transition = 0;
+        for (int state = 0; state < states.size(); state++) {
+            final Builder.Node node = states.get(state);
+            transitionStart[state] = transition;
+            payloads[state] = node.payload;
+            for (int i = 0; i < node.children.size(); i++, transition++) {
+                labels[transition] = node.labels.charAt(i);
+                targets[transition] = ids.get(node.children.get(i));
+            }
+        }
+        transitionStart[states.size()] = transition;
+        size = entries.size();
+    }
+
+    // Private constructors
+    private FynotekDictionary(int[] transitionStart, char[] labels, int[] targets, int[] payloads, int size) {
+        this.transitionStart = transitionStart;
+        this.labels = labels;
+        this.targets = targets;
+        this.payloads = payloads;
+        this.size = size;
+    }
+
+    private static Map<String, Integer> payloadsOf(Collection<String> words) {
+        final HashMap<String, Integer> entries = new HashMap<>();
+        for (String word : words) entries.put(word, 0);
+        return entries;
+    }
+
+    // Public methods
+    /**
+     * Returns whether <code>word</code> is in this dictionary.
+     * @param word the word to look up.
+     * @return whether <code>word</code> is in this dictionary.
+     */
+    public boolean contains(CharSequence word) {
+        return get(word, 0, word.length()) >= 0;
+    }
+
+    /**
+     * Returns the payload of <code>word</code>.
+     * @param word the word to look up.
+     * @return the payload of <code>word</code>, or -1 if it is not in this dictionary.
+     */
+    public int get(CharSequence word) {
+        return get(word, 0, word.length());
+    }
+
+    /**
+     * Returns the payload of the characters of <code>text</code> from <code>start</code> (inclusive) to <code>end</code> (exclusive), without copying them.
+     * @param text the text that contains the word to look up.
+     * @param start the index where the word starts.
+     * @param end the index where the word ends.
+     * @return the payload of the word, or -1 if it is not in this dictionary.
+     * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> is out of range.
+     */
+    public int get(CharSequence text, int start, int end) throws IndexOutOfBoundsException {
+        int state = 0;
+        for (int i = start; i < end && state >= 0; i++) state = next(state, text.charAt(i));
+        return (state < 0 ? -1 : payloads[state]);
+    }
+
+    /**
+     * Calls <code>action</code> for every word in this dictionary that is found in <code>text</code> starting at <code>start</code> and ending at or before <code>end</code>,
+     * from the shortest word to the longest. This takes a single pass over <code>text</code>.
+     * @param text the text to search.
+     * @param start the index where every match must start.
+     * @param end the index, exclusive, that every match must end at or before.
+     * @param action the function to call with the end and the payload of every match.
+     * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> is out of range.
+     */
+    public void forEachMatch(CharSequence text, int start, int end, MatchConsumer action) throws IndexOutOfBoundsException {
+        int state = 0;
+        if (payloads[state] >= 0) action.accept(start, payloads[state]);
+        for (int i = start; i < end; i++) {
+            state = next(state, text.charAt(i));
+            if (state < 0) return;
+            if (payloads[state] >= 0) action.accept(i + 1, payloads[state]);
+        }
+    }
+
+    /**
+     * Returns the words in this dictionary that are closest to <code>word</code>, up to a maximum Levenshtein distance.
+     * @param word the word to find suggestions for.
+     * @param maxDistance the maximum number of insertions, deletions, and substitutions needed to turn <code>word</code> into a suggestion.
+     * @param limit the maximum number of suggestions.
+     * @return an unmodifiable list of at most <code>limit</code> suggestions, from the closest to the farthest, and in alphabetical order among equally close words.
+     * @throws IllegalArgumentException if <code>maxDistance</code> or <code>limit</code> is negative.
+     */
+    public List<Suggestion> suggest(CharSequence word, int maxDistance, int limit) throws IllegalArgumentException {
+        return suggest(word, maxDistance, limit, payload -> true);
+    }
+
+    /**
+     * Returns the words in this dictionary whose payloads match <code>filter</code> that are closest to <code>word</code>, up to a maximum Levenshtein distance.
+     *
+     * The search walks the automaton depth-first, keeping one row of the edit distance table for each letter of the current prefix,
+     * and does not follow a transition once every entry in the row is too far away.
+     * Once <code>limit</code> suggestions have been found, words that are farther away than all of them are no longer searched for.
+     * @param word the word to find suggestions for.
+     * @param maxDistance the maximum number of insertions, deletions, and substitutions needed to turn <code>word</code> into a suggestion.
+     * @param limit the maximum number of suggestions.
+     * @param filter returns whether a word with a given payload can be suggested.
+     * @return an unmodifiable list of at most <code>limit</code> suggestions, from the closest to the farthest, and in alphabetical order among equally close words.
+     * @throws IllegalArgumentException if <code>maxDistance</code> or <code>limit</code> is negative.
+     */
+    public List<Suggestion> suggest(CharSequence word, int maxDistance, int limit, IntPredicate filter) throws IllegalArgumentException {
+        if (maxDistance < 0) throw new IllegalArgumentException("maxDistance cannot be negative");
+        if (limit < 0) throw new IllegalArgumentException("limit cannot be negative");
+        if (limit == 0) return List.of();
+        final Search search = new Search(word, maxDistance, limit, filter);
+        search.visit(0, 0);
+        final ArrayList<Suggestion> output = new ArrayList<>(limit);
+        for (List<Suggestion> suggestions : search.found)
+            for (Suggestion suggestion : suggestions) {
+                if (output.size() == limit) return List.copyOf(output);
+                output.add(suggestion);
+            }
+        return List.copyOf(output);
+    }
+
+    /**
+     * Returns the number of words in this dictionary.
+     * @return the number of words in this dictionary.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of states in this dictionary's automaton, which is the smallest possible number of states for its words and payloads.
+     * @return the number of states in this dictionary's automaton.
+     */
+    public int stateCount() {
+        return payloads.length;
+    }
+
+    /**
+     * Writes this dictionary to <code>out</code>, in a format that can be read by {@link #readFrom(DataInput)}.
+     * @param out the stream to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(payloads.length);
+        out.writeInt(labels.length);
+        for (int state = 0; state < payloads.length; state++) {
+            out.writeInt(payloads[state]);
+            out.writeShort(transitionStart[state + 1] - transitionStart[state]);
+        }
+        for (int i = 0; i < labels.length; i++) {
+            out.writeChar(labels[i]);
+            out.writeInt(targets[i]);
+        }
+    }
+
+    /**
+     * Reads a dictionary written by {@link #writeTo(DataOutput)}.
+     * @param in the stream to read from.
+     * @return the dictionary that was written to <code>in</code>.
+     * @throws IOException if an I/O error occurs, or if <code>in</code> does not contain a valid dictionary.
+     */
+    public static FynotekDictionary readFrom(DataInput in) throws IOException {
+        final int size = in.readInt(), stateCount = in.readInt(), transitionCount = in.readInt();
+        if (size < 0 || stateCount < 1 || transitionCount < 0) throw new IOException("Invalid dictionary header");
+        final int[] transitionStart = new int[stateCount + 1];
+        final int[] payloads = new int[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            payloads[state] = in.readInt();
+            transitionStart[state + 1] = transitionStart[state] + in.readUnsignedShort();
+        }
+        if (transitionStart[stateCount] != transitionCount) throw new IOException("Invalid transition count");
+        final char[] labels = new char[transitionCount];
+        final int[] targets = new int[transitionCount];
+        for (int i = 0; i < transitionCount; i++) {
+            labels[i] = in.readChar();
+            targets[i] = in.readInt();
+            if (targets[i] <= 0 || targets[i] >= stateCount) throw new IOException("Invalid transition target: " + targets[i]);
+        }
+        return new FynotekDictionary(transitionStart, labels, targets, payloads, size);
+    }
+
+    // Internal-use methods
+    /** Returns the state reached from <code>state</code> by <code>letter</code>, or -1 if there is no such transition. */
+    int next(int state, char letter) {
+        final int index = Arrays.binarySearch(labels, transitionStart[state], transitionStart[state + 1], letter);
+        return (index < 0 ? -1 : targets[index]);
+    }
+
+    /** The state of a single call to {@link #suggest(CharSequence, int, int, IntPredicate)}. */
+    private final class Search {
+        private final CharSequence word;
+        private final int limit;
+        private final IntPredicate filter;
+        /** The row of the edit distance table for each letter of the current prefix, where row <code>i</code> is used after <code>i</code> letters. */
+        private final int[][] rows;
+        private final StringBuilder prefix = new StringBuilder();
+        /** The suggestions found so far, grouped by their distance. */
+        private final List<List<Suggestion>> found = new ArrayList<>();
+        /** The maximum distance of a suggestion that could still be returned. */
+        private int bound;
+
+        Search(CharSequence word, int maxDistance, int limit, IntPredicate filter) {
+            this.word = word;
+            this.limit = limit;
+            this.filter = filter;
+            this.bound = maxDistance;
+            rows = new int[word.length() + maxDistance + 1][word.length() + 1];
+            for (int j = 0; j <= word.length(); j++) rows[0][j] = j;
+            for (int distance = 0; distance <= maxDistance; distance++) found.add(new ArrayList<>());
+        }
+
+        /** Visits <code>state</code>, which is reached after <code>depth</code> letters, and every state after it that could lead to a suggestion. */
+        void visit(int state, int depth) {
+            final int[] row = rows[depth];
+            final int distance = row[word.length()];
+            if (distance <= bound && payloads[state] >= 0 && filter.test(payloads[state])) add(new Suggestion(prefix.toString(), distance, payloads[state]));
+            if (depth + 1 == rows.length) return;
+
+            final int[] next = rows[depth + 1];
+            for (int transition = transitionStart[state]; transition < transitionStart[state + 1]; transition++) {
+                final char letter = labels[transition];
+                next[0] = row[0] + 1;
+                int minimum = next[0];
+                for (int j = 1; j <= word.length(); j++) {
+                    next[j] = Math.min(Math.min(row[j], next[j - 1]) + 1, row[j - 1] + (word.charAt(j - 1) == letter ? 0 : 1));
+                    minimum = Math.min(minimum, next[j]);
+                }
+                if (minimum > bound) continue; // Every word after this letter is too far away.
+                prefix.append(letter);
+                visit(targets[transition], depth + 1);
+                prefix.setLength(depth);
+            }
+        }
+
+        private void add(Suggestion suggestion) {
+            found.get(suggestion.distance()).add(suggestion);
+            // Once there are enough suggestions this close, farther words can never be returned.
+            int count = 0;
+            for (int distance = 0; distance <= bound; distance++) {
+                count += found.get(distance).size();
+                if (count >= limit) {
+                    bound = distance;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a minimal acyclic automaton from words in sorted order.
+     * The states of the last word added are kept unminimized until a word that does not share them is added,
+     * at which point each of them is replaced by an equivalent state in the register, or added to the register if there is none.
+     */
+    private static final class Builder {
+        private static final class Node {
+            /** The letter of every transition, in sorted order. */
+            final StringBuilder labels = new StringBuilder();
+            final List<Node> children = new ArrayList<>();
+            int payload = -1;
+        }
+
+        /**
+         * Two nodes are equivalent if they end the same words with the same payloads.
+         * Since the children of a registered node are themselves registered, this only depends on their identity.
+         */
+        private record Signature(int payload, String labels, List<Integer> children) {}
+
+        private final Node root = new Node();
+        private final HashMap<Signature, Node> register = new HashMap<>();
+        private final IdentityHashMap<Node, Integer> registeredIds = new IdentityHashMap<>();
+        /** The states of the last word added, where the state at index <code>i</code> is reached after <code>i</code> letters. */
+        private final ArrayList<Node> path = new ArrayList<>(List.of(root));
+        private String previous = "";
+
+        /** Adds a word, which must come after every word already added in sorted order. */
+        void add(String word, int payload) {
+            int prefixLength = 0;
+            while (prefixLength < word.length() && prefixLength < previous.length() && word.charAt(prefixLength) == previous.charAt(prefixLength))
+                prefixLength++;
+            minimize(prefixLength);
+
+            for (int i = prefixLength; i < word.length(); i++) {
+                final Node child = new Node();
+                final Node parent = path.get(i);
+                parent.labels.append(word.charAt(i));
+                parent.children.add(child);
+                path.add(child);
+            }
+            path.get(word.length()).payload = payload;
+            previous = word;
+        }
+
+        /** Minimizes every state of the last word added, and returns the initial state. */
+        Node finish() {
+            minimize(0);
+            return root;
+        }
+
+        /** Replaces or registers every state of the last word added that is reached after more than <code>depth</code> letters. */
+        private void minimize(int depth) {
+            for (int i = path.size() - 1; i > depth; i--) {
+                final Node node = path.remove(i);
+                final ArrayList<Integer> children = new ArrayList<>(node.children.size());
+                for (Node child : node.children) children.add(registeredIds.get(child));
+                final Node existing = register.putIfAbsent(new Signature(node.payload, node.labels.toString(), children), node);
+                final Node parent = path.get(i - 1);
+                if (existing != null) parent.children.set(parent.children.size() - 1, existing);
+                else registeredIds.put(node, registeredIds.size());
+            }
+        }
+    }
+}
@@ -2,7 +2,14 @@ package io.github.mathmaster13.aspenlangs.fynotek;
 
 import javax.annotation.Nullable;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A class for handling words in Fynotek, a conlang by mochaspen. All objects created by this class are immutable. Fynotek documentarion can be found <a href="https://aspenlangs.neocities.org/fyndoc.html">here</a>.
@@ -18,6 +25,10 @@ public final class FynotekWord extends BaseFynotekWord {
      */
     public final boolean isProper;
 
+    /** Every inflected form of this word, or <code>null</code> if they have not been computed yet. */
+    @Nullable
+    private List<FynotekWord> paradigm;
+
     // Constants
     /**
      * The irregular word <i>folo</i>, in its completely unmarked (root) form.
@@ -29,6 +40,32 @@ public final class FynotekWord extends BaseFynotekWord {
 
     private static final String[] binaryList = {"po", "pura", "poña", "sola", "manta", "tauwa"};
 
+    /** Every term of a number: <code>NUMBER_TERMS[digit][position]</code> is the digit followed by the binary suffix for its position. */
+    private static final String[][] NUMBER_TERMS = new String[6][64];
+    /** Powers of 6 up to the largest one that fits in a <code>long</code>, 6<sup>24</sup>. */
+    private static final long[] POWERS_OF_SIX = new long[25];
+    /** The number of base-6 digits in each <code>long</code> chunk of a BigInteger. */
+    private static final int CHUNK_DIGITS = 24;
+    /** 6<sup>24</sup> and 6<sup>48</sup>, which split any number up to {@link #MAX_MAGNITUDE} into chunks of {@link #CHUNK_DIGITS} digits. */
+    private static final BigInteger[] CHUNK_POWERS = {BigInteger.valueOf(6).pow(CHUNK_DIGITS), BigInteger.valueOf(6).pow(2 * CHUNK_DIGITS)};
+    /** The length of the longest translation of a <code>long</code>. */
+    private static final int MAX_LONG_NUMBER_LENGTH;
+    static {
+        for (int digit = 1; digit < 6; digit++)
+            for (int position = 0; position < 64; position++)
+                NUMBER_TERMS[digit][position] = digitList[digit] + binarySuffix(position);
+        POWERS_OF_SIX[0] = 1;
+        for (int i = 1; i < POWERS_OF_SIX.length; i++) POWERS_OF_SIX[i] = POWERS_OF_SIX[i - 1] * 6;
+        int length = "ñy".length();
+        for (int position = 0; position < POWERS_OF_SIX.length; position++) {
+            int longest = 0;
+            for (int digit = 1; digit < 6; digit++) longest = Math.max(longest, NUMBER_TERMS[digit][position].length());
+            length += 1 + longest;
+        }
+        MAX_LONG_NUMBER_LENGTH = length;
+    }
+    private static final NumberTrie NUMBER_TRIE = new NumberTrie(NUMBER_TERMS);
+
     /** Generated by IntelliJ IDEA Community. */
     @Override
     public boolean equals(@Nullable Object o) {
@@ -57,6 +94,15 @@ public final class FynotekWord extends BaseFynotekWord {
 
     private static final char[] stopList = {'p', 't', 'k'};
 
+    /**
+     * The default number of words at which {@link #inflectAll(String[], Inflection, boolean)} starts inflecting words in parallel.
+     * @see #inflectAll(String[], Inflection, boolean, int)
+     * @since 4.0
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    private static final Interner<FynotekWord> INTERNER = new Interner<>(key -> new FynotekWord(key.word(), key.inflection(), key.isProper()));
+
 
 
     // Public constructors
@@ -91,6 +137,45 @@ public final class FynotekWord extends BaseFynotekWord {
         this.isProper = isProper;
     }
 
+    // Interning
+    /**
+     * Returns a canonical FynotekWord equal to <code>new FynotekWord(word, inflection, isProper)</code>.
+     * Repeated calls with the same word, inflection, and proper noun status return the same instance for as long as that instance is in use,
+     * so interning words that occur many times avoids storing a copy of each one.
+     * Interned words that are no longer referenced anywhere else may be garbage collected.
+     * This method is thread-safe.
+     * @param word word to be converted to a FynotekWord.
+     * @param inflection this word's inflection, or <code>null</code> if it does not have one.
+     * @param isProper <code>true</code> if this word is a proper noun, or <code>false</code> if it is not.
+     * @return a canonical FynotekWord representing <code>word</code>.
+     * @see #FynotekWord(String, Inflection, boolean)
+     * @since 4.0
+     */
+    public static FynotekWord intern(String word, @Nullable Inflection inflection, boolean isProper) {
+        return INTERNER.intern(word, inflection, isProper);
+    }
+    /**
+     * Returns a canonical FynotekWord equal to <code>new FynotekWord(word, isProper)</code>.
+     * @param word word to be converted to a FynotekWord.
+     * @param isProper <code>true</code> if this word is a proper noun, or <code>false</code> if it is not.
+     * @return a canonical FynotekWord representing <code>word</code>.
+     * @see #intern(String, Inflection, boolean)
+     * @since 4.0
+     */
+    public static FynotekWord intern(String word, boolean isProper) {
+        return INTERNER.intern(word, null, isProper);
+    }
+    /**
+     * Returns a canonical FynotekWord equal to <code>new FynotekWord(word)</code>.
+     * @param word word to be converted to a FynotekWord.
+     * @return a canonical FynotekWord representing <code>word</code>.
+     * @see #intern(String, Inflection, boolean)
+     * @since 4.0
+     */
+    public static FynotekWord intern(String word) {
+        return INTERNER.intern(word, null, false);
+    }
+
     // Private constructors
     private FynotekWord(String a, String b, String c, @Nullable Inflection inflection, boolean isProper) {
         super(a, b, c, inflection);
@@ -104,7 +189,11 @@ public final class FynotekWord extends BaseFynotekWord {
         this(word, false);
     }
     private FynotekWord(BaseFynotekWord word, boolean isProper) {
-        super(word.beginning, word.vowels, word.end, null);
+        super(word.text, word.vowelsStart, word.vowelsEnd, null);
+        this.isProper = isProper;
+    }
+    FynotekWord(String text, int vowelsStart, int vowelsEnd, @Nullable Inflection inflection, boolean isProper) {
+        super(text, vowelsStart, vowelsEnd, inflection);
         this.isProper = isProper;
     }
 
@@ -112,6 +201,7 @@ public final class FynotekWord extends BaseFynotekWord {
     // Internal-use methods
     @Override
     protected String[] _ablaut(Ablaut ablaut) {
+        final String beginning = getBeginning(), vowels = getVowels(), end = getEnd();
         if (ablaut == Ablaut.DEFAULT || vowels.isEmpty()) return new String[]{beginning, vowels, end};
         String newVowels = vowels;
         if (ablaut == Ablaut.REDUPLICATION) {
@@ -137,6 +227,7 @@ public final class FynotekWord extends BaseFynotekWord {
     }
 
     private String[] properSuffix(Ablaut ablaut) {
+        final String beginning = getBeginning(), vowels = getVowels(), end = getEnd();
         if (ablaut == Ablaut.DEFAULT ||
                 (ablaut == Ablaut.REDUPLICATION && vowels.isEmpty()))
             return new String[]{beginning, vowels, end};
@@ -156,16 +247,6 @@ public final class FynotekWord extends BaseFynotekWord {
         return false;
     }
 
-    private static String number(String seximalString, boolean isNegative) {
-        if (seximalString.equals("0")) return "fui";
-        final StringBuilder output = new StringBuilder((isNegative ? "ñy " : ""));
-        for (int i = 0; i < seximalString.length(); i++) {
-            int seximalDigit = seximalString.charAt(i) - 48;
-            if (seximalDigit == 0) continue;
-            output.append(digitList[seximalDigit]).append(binarySuffix(seximalString.length() - i - 1)).append(" ");
-        }
-        return output.toString().trim();
-    }
     private static String binarySuffix(int num) {
         final StringBuilder output = new StringBuilder();
         for (byte i = 0; i <= 5; i++) {
@@ -175,17 +256,18 @@ public final class FynotekWord extends BaseFynotekWord {
     }
 
     // TODO re-implement this using regex
-    private static boolean isValidConsonantSequence(String sequence) {
+    // The result is the same if the sequence is reversed, which is what allows prefix junctions to be checked the same way as suffix junctions.
+    private static boolean isValidConsonantSequence(CharSequence sequence, int from, int to) {
         // Checks for consonant-related phonotactic problems
-        int i = 0;
-        while (i < sequence.length()) {
+        int i = from;
+        while (i < to) {
             char testChar = sequence.charAt(i);
             // Consonant check
             int j;
-            for (j = i; j < sequence.length(); j++)
+            for (j = i; j < to; j++)
                 if (isVowel(sequence.charAt(j)))
                     break;
-            if (j - i + ((i == 0 || j == sequence.length()) ? 1 : 0) > 3) return false;
+            if (j - i + ((i == from || j == to) ? 1 : 0) > 3) return false;
             if (j - i == 0) j++;
 
             // Stop+Stop check
@@ -200,6 +282,62 @@ public final class FynotekWord extends BaseFynotekWord {
         return true;
     }
 
+    /**
+     * Appends a suffix to the end of a word, infixing <i>n</i> or <i>a</i> if needed to make the result phonotactically valid.
+     * @param word the word to append the suffix to.
+     * @param vowelsStart the index of the start of the word's final vowel or diphthong.
+     * @param vowelsEnd the index of the end of the word's final vowel or diphthong.
+     * @param suffix the suffix, already trimmed and converted to lowercase. Must not be empty.
+     */
+    private static void appendSuffix(StringBuilder word, int vowelsStart, int vowelsEnd, String suffix) {
+        final int length = word.length();
+        if (vowelsEnd == length) {
+            // Check for VVV sequence
+            if (isVowel(suffix.charAt(0)) && ((vowelsEnd - vowelsStart >= 2) || (suffix.length() >= 2 && (isVowel(suffix.charAt(1))))))
+                word.append('n');
+            word.append(suffix);
+        } else {
+            word.append(suffix);
+            // This is so complex that delegating it to (a subset of) the isValidSequence() function may be needed.
+            if (!isValidConsonantSequence(word, vowelsStart, word.length())) word.insert(length, 'a');
+        }
+    }
+
+    /**
+     * Inserts a prefix at the beginning of a word, infixing <i>n</i> or <i>a</i> if needed to make the result phonotactically valid.
+     * This is the mirror image of {@link #appendSuffix(StringBuilder, int, int, String)}, using the word's first vowel or diphthong instead of its last.
+     * @param word the word to insert the prefix into.
+     * @param prefix the prefix, already trimmed and converted to lowercase. Must not be empty.
+     */
+    private static void insertPrefix(StringBuilder word, String prefix) {
+        int vowelsStart = 0;
+        while (vowelsStart < word.length() && !isVowel(word.charAt(vowelsStart))) vowelsStart++;
+        final int vowelsEnd = (vowelsStart + 1 < word.length() && isVowel(word.charAt(vowelsStart + 1)) ? vowelsStart + 2 : Math.min(vowelsStart + 1, word.length()));
+
+        final int length = prefix.length();
+        word.insert(0, prefix);
+        if (vowelsStart == 0) {
+            // Check for VVV sequence
+            if (isVowel(prefix.charAt(length - 1)) && ((vowelsEnd >= 2) || (length >= 2 && isVowel(prefix.charAt(length - 2)))))
+                word.insert(length, 'n');
+        } else if (!isValidConsonantSequence(word, 0, length + vowelsEnd)) {
+            word.insert(length, 'a');
+        }
+    }
+
+    /**
+     * Returns the parts of this word inflected for the specified inflection, as used by {@link #nounCase(Case)}, {@link #verbTense(Tense)}, and {@link #ablaut(Ablaut)}.
+     * @throws IllegalArgumentException if this word is the common noun "folo" and <code>inflection</code> is {@link Case#NOMINATIVE}.
+     */
+    private String[] inflectedParts(Inflection inflection) throws IllegalArgumentException {
+        if (inflection instanceof Case caseOfNoun && !isProper && this.toString().equals("folo")) {
+            if (caseOfNoun == Case.NOMINATIVE) throw new IllegalArgumentException("\"folo\" cannot be marked for the nominative case");
+            if (caseOfNoun == Case.ACCUSATIVE) return new String[]{"fol", "o", ""};
+        }
+        final Ablaut ablaut = inflection.getAblaut();
+        return (isProper ? properSuffix(ablaut) : _ablaut(ablaut));
+    }
+
 
     // Public methods
     /**
@@ -242,12 +380,8 @@ public final class FynotekWord extends BaseFynotekWord {
      * @see #isMarked()
      */
     public FynotekWord nounCase(Case caseOfNoun) throws IllegalArgumentException {
-        if (this.toString().equals("folo") && !isProper) {
-            if (caseOfNoun == Case.NOMINATIVE) throw new IllegalArgumentException("\"folo\" cannot be marked for the nominative case");
-            if (caseOfNoun == Case.ACCUSATIVE) return new FynotekWord("fol", "o", "", Case.ACCUSATIVE, false);
-        }
         // While there is an actual suffix function, I prefer to leave this simplified ome in for speed.
-        return new FynotekWord((isProper ? this.properSuffix(caseOfNoun.ablaut) : this._ablaut(caseOfNoun.ablaut)), caseOfNoun, isProper);
+        return new FynotekWord(inflectedParts(caseOfNoun), caseOfNoun, isProper);
     }
 
     /**
@@ -280,26 +414,11 @@ public final class FynotekWord extends BaseFynotekWord {
     public FynotekWord suffix(String suffix) {
         suffix = suffix.trim().toLowerCase();
         if (suffix.isBlank()) return this;
-        String output = this.toString();
-        if (end.isEmpty()) {
-            // Check for VVV sequence
-            if (isVowel(suffix.charAt(0)) && ((vowels.length() >= 2) || (suffix.length() >= 2 && (isVowel(suffix.charAt(1)))))) {
-                output += ("n" + suffix);
-            } else {
-                output += suffix;
-            }
-        } else {
-            // This is so complex that delegating it to (a subset of) the isValidSequence() function may be needed.
-            if (!isValidConsonantSequence(vowels + end + suffix)) {
-                output += ("a" + suffix);
-            } else {
-                output += suffix;
-            }
-        }
-        return new FynotekWord(output, inflection, isProper);
+        final StringBuilder output = new StringBuilder(this.toString());
+        appendSuffix(output, vowelsStart, vowelsEnd, suffix);
+        return new FynotekWord(output.toString(), inflection, isProper);
     }
 
-    // The prefix function just calls the function method on the reverse of the input, then reverses it back.
     /**
      * Returns a new FynotekWord with the specified prefix appended to the beginning of this word.
      * If the prefix creates a phonotactically invalid sequence, <i>n</i> or <i>a</i> will be infixed as needed to make the resulting word phonotactically valid.
@@ -310,19 +429,64 @@ public final class FynotekWord extends BaseFynotekWord {
      */
     public FynotekWord prefix(String prefix) {
         if (prefix.isEmpty()) return this;
-        StringBuilder temp = new StringBuilder(this.toString());
-        FynotekWord reverseWord = new FynotekWord(temp.reverse().toString());
-        temp = new StringBuilder(prefix);
-        temp = new StringBuilder(reverseWord.suffix(temp.reverse().toString()).toString());
-        return new FynotekWord(temp.reverse().toString(), inflection, isProper);
+        prefix = prefix.trim().toLowerCase();
+        final StringBuilder output = new StringBuilder(this.toString());
+        if (!prefix.isBlank()) insertPrefix(output, prefix);
+        return new FynotekWord(output.toString(), inflection, isProper);
+    }
+
+    /**
+     * Returns a new Builder that starts with this word.
+     * @return a Builder that starts with this word.
+     * @see Builder
+     * @since 4.0
+     */
+    public Builder builder() {
+        return new Builder(this);
     }
 
     @Override
     public FynotekWord inflect(@Nullable Inflection inflection) {
+        if (inflection != null && paradigm != null) {
+            final FynotekWord cached = paradigm.get(indexOf(inflection));
+            if (cached != null) return cached;
+        }
         if (inflection instanceof Case caseOfNoun) return nounCase(caseOfNoun);
         return (FynotekWord) super.inflect(inflection);
     }
 
+    /**
+     * {@inheritDoc}
+     * For the word <i>folo</i> as a common noun, the element for {@link Case#NOMINATIVE} is <code>null</code>.
+     * @see #nounCase(Case)
+     * @see #verbTense(Tense)
+     * @see #ablaut(Ablaut)
+     */
+    @Override
+    public List<FynotekWord> paradigm() {
+        List<FynotekWord> output = paradigm;
+        if (output == null) paradigm = output = computeParadigm();
+        return output;
+    }
+
+    private List<FynotekWord> computeParadigm() {
+        // Each ablaut is only applied once, and then shared by every inflection that uses it.
+        final Ablaut[] ablauts = Ablaut.values();
+        final String[][] forms = new String[ablauts.length][];
+        for (Ablaut ablaut : ablauts)
+            forms[ablaut.ordinal()] = (isProper ? properSuffix(ablaut) : _ablaut(ablaut));
+
+        final boolean isFolo = !isProper && toString().equals("folo");
+        final FynotekWord[] output = new FynotekWord[Inflection.values.length];
+        for (int i = 0; i < output.length; i++) {
+            final Inflection inflection = Inflection.values[i];
+            if (isFolo && inflection == Case.NOMINATIVE) continue;
+            final Ablaut ablaut = (isFolo && inflection == Case.ACCUSATIVE ? Ablaut.DEFAULT : inflection.getAblaut());
+            output[i] = new FynotekWord(forms[ablaut.ordinal()], inflection, isProper);
+        }
+        return Collections.unmodifiableList(Arrays.asList(output));
+    }
+
     /**
      * {@inheritDoc}
      * @see #nounCase(Case)
@@ -343,6 +507,57 @@ public final class FynotekWord extends BaseFynotekWord {
 
 
     // Static methods
+    /**
+     * Converts every String in <code>words</code> to a FynotekWord and inflects it for the specified inflection.
+     * This is equivalent to calling <code>new FynotekWord(word, isProper).inflect(inflection)</code> on every word, in order,
+     * except that the words are inflected in parallel (using the common {@link java.util.concurrent.ForkJoinPool}) if there are at least {@code parallelThreshold} of them.
+     * @param words the words to be inflected.
+     * @param inflection the inflection to inflect every word for, or <code>null</code> to leave them as root forms.
+     * @param isProper <code>true</code> if the words are proper nouns, or <code>false</code> if they are not.
+     * @param parallelThreshold the minimum number of words needed to inflect them in parallel.
+     * @return an array where each element is the corresponding element of <code>words</code>, inflected.
+     * @throws IllegalArgumentException if any word cannot be inflected for <code>inflection</code> (see {@link #nounCase(Case)}).
+     * @see #inflect(Inflection)
+     * @since 4.0
+     */
+    public static FynotekWord[] inflectAll(String[] words, @Nullable Inflection inflection, boolean isProper, int parallelThreshold) throws IllegalArgumentException {
+        final FynotekWord[] output = new FynotekWord[words.length];
+        final IntFunction<FynotekWord> inflectWord = i -> new FynotekWord(words[i], isProper).inflect(inflection);
+        if (words.length >= parallelThreshold) Arrays.parallelSetAll(output, inflectWord);
+        else Arrays.setAll(output, inflectWord);
+        return output;
+    }
+
+    /**
+     * Converts every String in <code>words</code> to a FynotekWord and inflects it for the specified inflection,
+     * in parallel if there are at least {@link #DEFAULT_PARALLEL_THRESHOLD} words.
+     * @param words the words to be inflected.
+     * @param inflection the inflection to inflect every word for, or <code>null</code> to leave them as root forms.
+     * @param isProper <code>true</code> if the words are proper nouns, or <code>false</code> if they are not.
+     * @return an array where each element is the corresponding element of <code>words</code>, inflected.
+     * @throws IllegalArgumentException if any word cannot be inflected for <code>inflection</code> (see {@link #nounCase(Case)}).
+     * @see #inflectAll(String[], Inflection, boolean, int)
+     * @since 4.0
+     */
+    public static FynotekWord[] inflectAll(String[] words, @Nullable Inflection inflection, boolean isProper) throws IllegalArgumentException {
+        return inflectAll(words, inflection, isProper, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Converts every String in <code>words</code> to a FynotekWord and inflects it for the specified inflection,
+     * in parallel if there are at least {@link #DEFAULT_PARALLEL_THRESHOLD} words.
+     * @param words the words to be inflected.
+     * @param inflection the inflection to inflect every word for, or <code>null</code> to leave them as root forms.
+     * @param isProper <code>true</code> if the words are proper nouns, or <code>false</code> if they are not.
+     * @return an array where each element is the corresponding element of <code>words</code>, inflected.
+     * @throws IllegalArgumentException if any word cannot be inflected for <code>inflection</code> (see {@link #nounCase(Case)}).
+     * @see #inflectAll(String[], Inflection, boolean, int)
+     * @since 4.0
+     */
+    public static FynotekWord[] inflectAll(List<String> words, @Nullable Inflection inflection, boolean isProper) throws IllegalArgumentException {
+        return inflectAll(words.toArray(new String[0]), inflection, isProper, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
     /**
      * Returns the Fynotek translation of the specified number. If the number's absolute value is greater than <code>MAX_MAGNITUDE</code>, an empty String is returned.
      * @param num the number to be translated.
@@ -351,9 +566,37 @@ public final class FynotekWord extends BaseFynotekWord {
      * @see #MAX_MAGNITUDE
      */
     public static String number(BigInteger num) {
+        if (num.bitLength() < Long.SIZE) return number(num.longValue());
+        try {
+            return number(num, new StringBuilder()).toString();
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringBuilder never throws IOException.
+        }
+    }
+
+    /**
+     * Appends the Fynotek translation of the specified number to <code>output</code>.
+     * The appended text is the same as {@link #number(BigInteger)}.
+     *
+     * The number is split into chunks that fit in a <code>long</code> by dividing by cached powers of 6, so that most of the work is done without BigInteger arithmetic,
+     * and no intermediate Strings are created.
+     * @param num the number to be translated.
+     * @param output the Appendable to append the translation to.
+     * @param <T> the type of <code>output</code>.
+     * @return <code>output</code>.
+     * @throws IllegalArgumentException If the number provided is too large for the number system to handle.
+     * @throws IOException if <code>output</code> throws an IOException.
+     * @see #number(BigInteger)
+     * @see #MAX_MAGNITUDE
+     * @since 4.0
+     */
+    public static <T extends Appendable> T number(BigInteger num, T output) throws IllegalArgumentException, IOException {
+        if (num.bitLength() < Long.SIZE) return number(num.longValue(), output);
         final BigInteger magnitude = num.abs();
         if (magnitude.compareTo(MAX_MAGNITUDE) > 0) throw new IllegalArgumentException("Number is too large");
-        return number(magnitude.toString(6), (num.signum() == -1));
+        if (num.signum() == -1) output.append("ñy");
+        appendTerms(magnitude, CHUNK_POWERS.length - 1, 0, output, (num.signum() == 1));
+        return output;
     }
 
     /**
@@ -362,7 +605,169 @@ public final class FynotekWord extends BaseFynotekWord {
      * @return the Fynotek translation of the specified number.
      */
     public static String number(long num) {
-        return number(Long.toString(Math.abs(num), 6), (Math.signum(num) == -1));
+        final char[] buffer = new char[MAX_LONG_NUMBER_LENGTH];
+        return new String(buffer, 0, number(num, buffer, 0));
+    }
+
+    /**
+     * Appends the Fynotek translation of the specified number to <code>output</code>.
+     * The appended text is the same as {@link #number(long)}, but no intermediate Strings are created.
+     * @param num the number to be translated.
+     * @param output the Appendable to append the translation to.
+     * @param <T> the type of <code>output</code>.
+     * @return <code>output</code>.
+     * @throws IOException if <code>output</code> throws an IOException.
+     * @see #number(long)
+     * @since 4.0
+     */
+    public static <T extends Appendable> T number(long num, T output) throws IOException {
+        if (num == 0) {
+            output.append("fui");
+            return output;
+        }
+        if (num < 0) output.append("ñy");
+        // Digits are taken from the negative magnitude, since Long.MIN_VALUE has no positive counterpart.
+        appendTerms((num < 0 ? num : -num), POWERS_OF_SIX.length - 1, 0, output, (num > 0));
+        return output;
+    }
+
+    /**
+     * Appends the terms for every nonzero digit of <code>magnitude</code>, from the most significant digit to the least.
+     * <code>magnitude</code> is split at <code>CHUNK_POWERS[level]</code>, and each half is split again at lower levels until it fits in a <code>long</code>.
+     * @param positionOffset the position of the least significant digit of <code>magnitude</code> in the whole number.
+     * @param first whether no terms have been appended yet, in which case no space is appended before the first term.
+     * @return whether no terms have been appended yet.
+     */
+    private static boolean appendTerms(BigInteger magnitude, int level, int positionOffset, Appendable output, boolean first) throws IOException {
+        if (level < 0) return appendTerms(-magnitude.longValue(), CHUNK_DIGITS - 1, positionOffset, output, first);
+        if (magnitude.compareTo(CHUNK_POWERS[level]) < 0) return appendTerms(magnitude, level - 1, positionOffset, output, first);
+        final BigInteger[] quotientAndRemainder = magnitude.divideAndRemainder(CHUNK_POWERS[level]);
+        first = appendTerms(quotientAndRemainder[0], level - 1, positionOffset + (CHUNK_DIGITS << level), output, first);
+        return appendTerms(quotientAndRemainder[1], level - 1, positionOffset, output, first);
+    }
+
+    /**
+     * Appends the terms for every nonzero digit of a number that fits in a <code>long</code>.
+     * @param negativeMagnitude the negated magnitude of the number.
+     * @param highestPosition the position of the most significant digit that <code>negativeMagnitude</code> may have.
+     * @param positionOffset the position of the least significant digit of the number in the whole number.
+     * @param first whether no terms have been appended yet, in which case no space is appended before the first term.
+     * @return whether no terms have been appended yet.
+     */
+    private static boolean appendTerms(long negativeMagnitude, int highestPosition, int positionOffset, Appendable output, boolean first) throws IOException {
+        for (int position = highestPosition; position >= 0; position--) {
+            final int digit = (int) -(negativeMagnitude / POWERS_OF_SIX[position]);
+            negativeMagnitude %= POWERS_OF_SIX[position];
+            if (digit == 0) continue;
+            if (!first) output.append(' ');
+            output.append(NUMBER_TERMS[digit][position + positionOffset]);
+            first = false;
+        }
+        return first;
+    }
+
+    /**
+     * Writes the Fynotek translation of the specified number to <code>destination</code>, starting at index <code>offset</code>.
+     * The written text is the same as {@link #number(long)}, but no objects are created.
+     * A translation is never longer than 303 characters.
+     * @param num the number to be translated.
+     * @param destination the array to write the translation to.
+     * @param offset the index in <code>destination</code> to write the first character to.
+     * @return the number of characters written.
+     * @throws IndexOutOfBoundsException if the translation does not fit in <code>destination</code>. Part of the translation may have already been written.
+     * @see #number(long)
+     * @since 4.0
+     */
+    public static int number(long num, char[] destination, int offset) throws IndexOutOfBoundsException {
+        if (num == 0) return write("fui", destination, offset);
+        int index = offset;
+        if (num < 0) index += write("ñy", destination, index);
+        long remainder = (num < 0 ? num : -num);
+        boolean first = (num > 0);
+        for (int position = POWERS_OF_SIX.length - 1; position >= 0; position--) {
+            final int digit = (int) -(remainder / POWERS_OF_SIX[position]);
+            remainder %= POWERS_OF_SIX[position];
+            if (digit == 0) continue;
+            if (!first) destination[index++] = ' ';
+            index += write(NUMBER_TERMS[digit][position], destination, index);
+            first = false;
+        }
+        return index - offset;
+    }
+
+    /** Copies <code>string</code> into <code>destination</code> at <code>offset</code>, and returns its length. */
+    private static int write(String string, char[] destination, int offset) {
+        string.getChars(0, string.length(), destination, offset);
+        return string.length();
+    }
+
+    /**
+     * Returns the number represented by a Fynotek translation of a number. This is the inverse of {@link #number(long)}:
+     * <code>numeral</code> is accepted if and only if it is exactly a String that <code>number(long)</code> returns,
+     * so it must be in lowercase, and its words must be separated by single spaces with no leading or trailing whitespace.
+     * @param numeral the translation of a number, such as <code>"fopura aypo"</code>.
+     * @return the number represented by <code>numeral</code>.
+     * @throws NumberFormatException if <code>numeral</code> is not a translation of a number, or if its number does not fit in a <code>long</code>.
+     * @see #number(long)
+     * @see #parseBigInteger(CharSequence)
+     * @since 4.0
+     */
+    public static long parseNumber(CharSequence numeral) throws NumberFormatException {
+        final long[] chunks = new long[CHUNK_POWERS.length + 1];
+        final boolean isNegative = parseChunks(numeral, chunks);
+        if (chunks[2] != 0) throw new NumberFormatException("Number is out of range for a long: \"" + numeral + "\"");
+        try {
+            // The value is built as a negative number, since Long.MIN_VALUE has no positive counterpart.
+            final long negativeValue = Math.subtractExact(-chunks[0], Math.multiplyExact(chunks[1], POWERS_OF_SIX[CHUNK_DIGITS]));
+            return (isNegative ? negativeValue : Math.negateExact(negativeValue));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Number is out of range for a long: \"" + numeral + "\"");
+        }
+    }
+
+    /**
+     * Returns the number represented by a Fynotek translation of a number. This is the inverse of {@link #number(BigInteger)}:
+     * <code>numeral</code> is accepted if and only if it is exactly a String that <code>number(BigInteger)</code> returns,
+     * so it must be in lowercase, and its words must be separated by single spaces with no leading or trailing whitespace.
+     * @param numeral the translation of a number, such as <code>"fopura aypo"</code>.
+     * @return the number represented by <code>numeral</code>.
+     * @throws NumberFormatException if <code>numeral</code> is not a translation of a number.
+     * @see #number(BigInteger)
+     * @see #parseNumber(CharSequence)
+     * @since 4.0
+     */
+    public static BigInteger parseBigInteger(CharSequence numeral) throws NumberFormatException {
+        final long[] chunks = new long[CHUNK_POWERS.length + 1];
+        final boolean isNegative = parseChunks(numeral, chunks);
+        BigInteger value = BigInteger.valueOf(chunks[0]);
+        for (int i = 1; i < chunks.length; i++)
+            if (chunks[i] != 0) value = value.add(BigInteger.valueOf(chunks[i]).multiply(CHUNK_POWERS[i - 1]));
+        return (isNegative ? value.negate() : value);
+    }
+
+    /**
+     * Parses a Fynotek translation of a number into chunks of {@link #CHUNK_DIGITS} base-6 digits, from least significant to most significant.
+     * Every term is matched against {@link #NUMBER_TRIE}, and the positions of the terms must be strictly decreasing.
+     * @return <code>true</code> if the number is negative, and <code>false</code> if it is not.
+     * @throws NumberFormatException if <code>numeral</code> is not a translation of a number.
+     */
+    private static boolean parseChunks(CharSequence numeral, long[] chunks) throws NumberFormatException {
+        final int length = numeral.length();
+        if (length == 3 && numeral.charAt(0) == 'f' && numeral.charAt(1) == 'u' && numeral.charAt(2) == 'i') return false;
+        final boolean isNegative = (length > 3 && numeral.charAt(0) == 'ñ' && numeral.charAt(1) == 'y' && numeral.charAt(2) == ' ');
+        int start = (isNegative ? 3 : 0);
+        int lastPosition = 64;
+        while (true) {
+            int end = start;
+            while (end < length && numeral.charAt(end) != ' ') end++;
+            final int term = NUMBER_TRIE.match(numeral, start, end);
+            if (term == NumberTrie.NO_MATCH || (term >>> 3) >= lastPosition)
+                throw new NumberFormatException("Not a Fynotek number: \"" + numeral + "\"");
+            lastPosition = term >>> 3;
+            chunks[lastPosition / CHUNK_DIGITS] += (term & 7) * POWERS_OF_SIX[lastPosition % CHUNK_DIGITS];
+            if (end == length) return isNegative;
+            start = end + 1;
+        }
     }
 
     private static final String CONSONANTS = "([ptk](?![ptk])|[mnñrfshjwl])";
@@ -384,30 +789,151 @@ public final class FynotekWord extends BaseFynotekWord {
      * @param sequence the sequence to be checked for validity.
      * @return <code>true</code> if <code>sequence</code> is a valid sequence, and <code>false</code> if otherwise.
      */
-    // This function is a copy of `isValidSequence(String, Regex)` from the aspenlangs package,
-    // in order to avoid this project having Kotlin dependencies.
     public static boolean isValidSequence(String sequence) {
-        sequence = sequence.trim().toLowerCase();
-        if (isBlank(sequence)) return false;
+        return Phonotactics.isValid(sequence);
+    }
 
-        // Handle a multiple-word sequence
-        final String[] wordArray = sequence.split("\\s+");
-        if (wordArray.length == 0) return false;
+    /**
+     * Returns whether the given sequence is phonotactically and orthographically valid in Fynotek.
+     * This method behaves in the same way as {@link #isValidSequence(String)}.
+     *
+     * The sequence is checked in a single pass by a precompiled automaton equivalent to {@link #PHONOTACTICS},
+     * so no copies of the sequence or other objects are created.
+     * @param sequence the sequence to be checked for validity.
+     * @return <code>true</code> if <code>sequence</code> is a valid sequence, and <code>false</code> if otherwise.
+     * @see #isValidSequence(String)
+     * @since 4.0
+     */
+    public static boolean isValidSequence(CharSequence sequence) {
+        return Phonotactics.isValid(sequence);
+    }
 
-        for (String word : wordArray)
-            if (!word.matches("an+") && !word.matches(PHONOTACTICS))
-                return false;
-        return true;
+    /**
+     * Returns every word of at most <code>maxLength</code> letters that is valid according to {@link #isValidSequence(String)}, in lowercase and in sorted order.
+     * This includes "an" followed by any number of Ns.
+     *
+     * The words are found by walking the automaton used by {@link #isValidSequence(CharSequence)} as the stream is consumed,
+     * so they are never all held in memory, and no invalid sequences are ever generated.
+     * The returned stream is sequential, but it can be made parallel with {@link Stream#parallel()},
+     * in which case the words are split by their prefixes into groups of about the same size, and each group is enumerated independently.
+     * @param maxLength the maximum length of a word.
+     * @return a stream of every valid word of at most <code>maxLength</code> letters.
+     * @throws IllegalArgumentException if <code>maxLength</code> is negative.
+     * @since 4.0
+     */
+    public static Stream<String> validSequences(int maxLength) throws IllegalArgumentException {
+        if (maxLength < 0) throw new IllegalArgumentException("maxLength cannot be negative");
+        return StreamSupport.stream(new Phonotactics.Enumerator(maxLength), false);
     }
 
-    // Use the Kotlin definition of isBlank for consistency
-    private static boolean isBlank(String s) {
-        if (s.length() == 0) return true;
-        for (int i = 0; i < s.length(); i++) {
-            char charToCheck = s.charAt(i);
-            if (!(Character.isWhitespace(charToCheck) || Character.isSpaceChar(charToCheck))) return false;
+    /**
+     * A mutable builder for words with several affixes, such as <code>word.nounCase(c).suffix(s1).suffix(s2).prefix(p)</code>.
+     * Calling {@link #suffix(String)} or {@link #prefix(String)} on a FynotekWord creates a new word each time,
+     * while a Builder applies every affix to a single buffer and only creates a FynotekWord when {@link #build()} is called.
+     * The result is always the same as calling the equivalent methods on a FynotekWord, in the same order.
+     *
+     * An inflection must be given before any affixes, as with FynotekWord.
+     * Builders are not thread-safe.
+     * @see #builder()
+     * @since 4.0
+     */
+    public static final class Builder {
+        private final FynotekWord word;
+        private final StringBuilder buffer;
+        @Nullable
+        private Inflection inflection;
+        /** The start and end of the final vowel or diphthong in the buffer. */
+        private int vowelsStart, vowelsEnd;
+        private boolean hasAffixes = false;
+
+        /**
+         * Creates a new Builder that starts with the given word.
+         * @param word the word to add affixes to.
+         */
+        public Builder(FynotekWord word) {
+            this.word = word;
+            this.buffer = new StringBuilder(word.text.length() + 16);
+            setParts(word.text, word.vowelsStart, word.vowelsEnd, word.inflection);
+        }
+
+        /**
+         * Inflects the word for the specified inflection, in the same way as {@link FynotekWord#inflect(Inflection)}.
+         * The inflection is applied to the word this Builder started with, and replaces any inflection previously given to this Builder.
+         * @param inflection the inflection to inflect the word for, or <code>null</code> to use the word as it started.
+         * @return this Builder.
+         * @throws IllegalStateException if an affix has already been added.
+         * @throws IllegalArgumentException if the word cannot be inflected for <code>inflection</code> (see {@link #nounCase(Case)}).
+         */
+        public Builder inflect(@Nullable Inflection inflection) throws IllegalStateException, IllegalArgumentException {
+            if (hasAffixes) throw new IllegalStateException("Words must be inflected before any affixes are added");
+            if (inflection == null) {
+                setParts(word.text, word.vowelsStart, word.vowelsEnd, word.inflection);
+            } else {
+                final String[] parts = word.inflectedParts(inflection);
+                setParts(parts[0] + parts[1] + parts[2], parts[0].length(), parts[0].length() + parts[1].length(), inflection);
+            }
+            return this;
+        }
+
+        /**
+         * Appends a suffix to the end of the word, in the same way as {@link FynotekWord#suffix(String)}.
+         * @param suffix the suffix to be appended to the end of the word.
+         * @return this Builder.
+         */
+        public Builder suffix(String suffix) {
+            suffix = suffix.trim().toLowerCase();
+            if (suffix.isBlank()) return this;
+            appendSuffix(buffer, vowelsStart, vowelsEnd, suffix);
+            affixAdded();
+            return this;
+        }
+
+        /**
+         * Appends a prefix to the beginning of the word, in the same way as {@link FynotekWord#prefix(String)}.
+         * @param prefix the prefix to be appended to the beginning of the word.
+         * @return this Builder.
+         */
+        public Builder prefix(String prefix) {
+            if (prefix.isEmpty()) return this;
+            prefix = prefix.trim().toLowerCase();
+            if (!prefix.isBlank()) insertPrefix(buffer, prefix);
+            affixAdded();
+            return this;
+        }
+
+        /**
+         * Appends the suffix for the specified person, in the same way as {@link FynotekWord#personSuffix(Person)}.
+         * @param person the person whose suffix should be appended.
+         * @return this Builder.
+         */
+        public Builder personSuffix(Person person) {
+            if (person == Person.P1) return this;
+            return suffix(person.suffix);
+        }
+
+        /**
+         * Returns a FynotekWord with every inflection and affix given to this Builder.
+         * This Builder can still be used afterwards.
+         * @return a FynotekWord with every inflection and affix given to this Builder.
+         */
+        public FynotekWord build() {
+            return new FynotekWord(buffer.toString(), vowelsStart, vowelsEnd, inflection, word.isProper);
+        }
+
+        private void setParts(String text, int vowelsStart, int vowelsEnd, @Nullable Inflection inflection) {
+            buffer.setLength(0);
+            buffer.append(text);
+            this.vowelsStart = vowelsStart;
+            this.vowelsEnd = vowelsEnd;
+            this.inflection = inflection;
+        }
+
+        /** Finds the word's final vowel or diphthong again, since a FynotekWord is split up again after every affix. */
+        private void affixAdded() {
+            hasAffixes = true;
+            vowelsEnd = vowelsEnd(buffer, 0, buffer.length());
+            vowelsStart = vowelsStart(buffer, 0, vowelsEnd);
         }
-        return true;
     }
 
     /**
@@ -0,0 +1,77 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import javax.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe canonicalization map for words, used internally by the <code>intern</code> methods of {@link FynotekWord} and {@link OldFynotekWord}.
+ * Words are only weakly referenced, so an interned word that is no longer used anywhere else can still be garbage collected.
+ * Lookups never block; insertions only compete with other insertions of the same key.
+ * @param <V> the type of word stored in this map.
+ */
+final class Interner<V extends BaseFynotekWord> {
+    /**
+     * The key that a word is interned under.
+     * @param word the word's String representation, already trimmed and converted to lowercase.
+     * @param inflection the word's inflection, or <code>null</code> if it does not have one.
+     * @param isProper whether the word is a proper noun. Always <code>false</code> for old Fynotek words.
+     */
+    record Key(String word, @Nullable Inflection inflection, boolean isProper) {}
+
+    private static final class Entry<V> extends WeakReference<V> {
+        private final Key key;
+
+        private Entry(Key key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Entry<V>> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+    private final Function<Key, V> factory;
+
+    /**
+     * Creates an empty Interner.
+     * @param factory creates a new word from its key when no canonical instance exists yet.
+     */
+    Interner(Function<Key, V> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the canonical word for the given key, creating it if needed.
+     * Leading and trailing whitespace is ignored, and <code>word</code> is converted to lowercase, as in {@link BaseFynotekWord#BaseFynotekWord(String, Inflection)}.
+     */
+    V intern(String word, @Nullable Inflection inflection, boolean isProper) {
+        expungeStaleEntries();
+        final Key key = new Key(word.trim().toLowerCase(), inflection, isProper);
+        Entry<V> existing = map.get(key);
+        V value = (existing == null ? null : existing.get());
+        if (value != null) return value;
+
+        final V created = factory.apply(key);
+        final Entry<V> entry = new Entry<>(key, created, queue);
+        while (true) {
+            existing = map.putIfAbsent(key, entry);
+            if (existing == null) return created;
+            value = existing.get();
+            if (value != null) return value; // Another thread won the race.
+            if (map.replace(key, existing, entry)) return created; // The old word was collected.
+        }
+    }
+
+    /** Removes all entries whose words have been garbage collected. */
+    private void expungeStaleEntries() {
+        Reference<? extends V> reference;
+        while ((reference = queue.poll()) != null) {
+            final Entry<?> entry = (Entry<?>) reference;
+            map.remove(entry.key, entry);
+        }
+    }
+}
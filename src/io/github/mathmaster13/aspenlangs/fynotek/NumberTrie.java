@@ -0,0 +1,77 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import java.util.Arrays;
+
+/**
+ * A trie of every term of a Fynotek number (a digit followed by the binary suffix for its position, such as "aypura" or "fosola"),
+ * used internally by {@link FynotekWord#parseNumber(CharSequence)} and {@link FynotekWord#parseBigInteger(CharSequence)}.
+ *
+ * The trie is stored as a table of child nodes, so a term is matched one character at a time with a single array lookup for each character.
+ * @author mathmaster13
+ */
+final class NumberTrie {
+    /** Returned by {@link #match(CharSequence, int, int)} if no term matches. */
+    static final int NO_MATCH = -1;
+
+    /** The index of every character below 256 in the trie's alphabet, plus 1, or 0 if no term contains that character. */
+    private final byte[] letters = new byte[256];
+    private final int alphabetSize;
+    /** The child of every node for every letter, at index <code>node * alphabetSize + letter</code>, or 0 (the root node) if there is none. */
+    private int[] children;
+    /** The term that ends at every node, as returned by {@link #match(CharSequence, int, int)}, or {@link #NO_MATCH} if no term ends there. */
+    private int[] terms;
+    private int nodeCount = 1;
+
+    /**
+     * Creates a trie of the given terms.
+     * @param terms every term: <code>terms[digit][position]</code> is the term for a digit at a position, or <code>null</code> if there is none.
+     */
+    NumberTrie(String[][] terms) {
+        int alphabetSize = 0;
+        for (String[] row : terms)
+            for (String term : row)
+                if (term != null)
+                    for (int i = 0; i < term.length(); i++)
+                        if (letters[term.charAt(i)] == 0) letters[term.charAt(i)] = (byte) ++alphabetSize;
+        this.alphabetSize = alphabetSize;
+
+        children = new int[64 * alphabetSize];
+        this.terms = new int[64];
+        Arrays.fill(this.terms, NO_MATCH);
+        for (int digit = 0; digit < terms.length; digit++)
+            for (int position = 0; position < terms[digit].length; position++)
+                if (terms[digit][position] != null) add(terms[digit][position], (position << 3) | digit);
+    }
+
+    private void add(String term, int value) {
+        int node = 0;
+        for (int i = 0; i < term.length(); i++) {
+            final int index = node * alphabetSize + letters[term.charAt(i)] - 1;
+            if (children[index] == 0) {
+                if (nodeCount == terms.length) {
+                    children = Arrays.copyOf(children, 2 * children.length);
+                    terms = Arrays.copyOf(terms, 2 * terms.length);
+                    Arrays.fill(terms, nodeCount, terms.length, NO_MATCH);
+                }
+                children[index] = nodeCount++;
+            }
+            node = children[index];
+        }
+        terms[node] = value;
+    }
+
+    /**
+     * Returns the term that is exactly the characters of <code>sequence</code> from <code>from</code> (inclusive) to <code>to</code> (exclusive).
+     * @return the term's position shifted left by 3, bitwise or-ed with its digit, or {@link #NO_MATCH} if the characters are not a term.
+     */
+    int match(CharSequence sequence, int from, int to) {
+        int node = 0;
+        for (int i = from; i < to; i++) {
+            final char c = sequence.charAt(i);
+            if (c >= 256 || letters[c] == 0) return NO_MATCH;
+            node = children[node * alphabetSize + letters[c] - 1];
+            if (node == 0) return NO_MATCH;
+        }
+        return terms[node];
+    }
+}
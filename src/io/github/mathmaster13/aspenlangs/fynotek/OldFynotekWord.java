@@ -1,12 +1,22 @@
 package io.github.mathmaster13.aspenlangs.fynotek;
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * A class for handling words in an older version of Fynotek. All objects created by this class are immutable. Old Fynotek documentation can be found <a href="https://docs.google.com/document/d/1U66rWinK0Qy-xab_ifZ4KC4c95icbjSgiUk9Qc27-80/edit">here</a>.
  * @author mathmaster13
  * @since 1.0
  */
 public final class OldFynotekWord extends BaseFynotekWord {
+    /** Every inflected form of this word, or <code>null</code> if they have not been computed yet. */
+    @Nullable
+    private List<OldFynotekWord> paradigm;
+
+    private static final Interner<OldFynotekWord> INTERNER = new Interner<>(key -> new OldFynotekWord(key.word(), key.inflection()));
+
     // Public constructors
     /**
      * Converts a String to an OldFynotekWord. Leading and trailing whitespace is ignored (the <code>String.trim()</code> method is called on <code>word</code>).
@@ -31,10 +41,40 @@ public final class OldFynotekWord extends BaseFynotekWord {
         super(word, inflection);
     }
 
+    // Interning
+    /**
+     * Returns a canonical OldFynotekWord equal to <code>new OldFynotekWord(word, inflection)</code>.
+     * Repeated calls with the same word and inflection return the same instance for as long as that instance is in use.
+     * Interned words that are no longer referenced anywhere else may be garbage collected.
+     * This method is thread-safe.
+     * @param word word to be converted to an OldFynotekWord.
+     * @param inflection this word's inflection, or <code>null</code> if it does not have one.
+     * @return a canonical OldFynotekWord representing <code>word</code>.
+     * @see #OldFynotekWord(String, Inflection)
+     * @see FynotekWord#intern(String, Inflection, boolean)
+     * @since 4.0
+     */
+    public static OldFynotekWord intern(String word, @Nullable Inflection inflection) {
+        return INTERNER.intern(word, inflection, false);
+    }
+    /**
+     * Returns a canonical OldFynotekWord equal to <code>new OldFynotekWord(word)</code>.
+     * @param word word to be converted to an OldFynotekWord.
+     * @return a canonical OldFynotekWord representing <code>word</code>.
+     * @see #intern(String, Inflection)
+     * @since 4.0
+     */
+    public static OldFynotekWord intern(String word) {
+        return INTERNER.intern(word, null, false);
+    }
+
     // Private constructors
     private OldFynotekWord(String a, String b, String c, @Nullable Inflection inflection) {
         super(a, b, c, inflection);
     }
+    private OldFynotekWord(BaseFynotekWord word, @Nullable Inflection inflection) {
+        super(word.text, word.vowelsStart, word.vowelsEnd, inflection);
+    }
     private OldFynotekWord(String[] word, Inflection inflection) {
         super(word, inflection);
     }
@@ -47,6 +87,7 @@ public final class OldFynotekWord extends BaseFynotekWord {
     @Override
     protected String[] _ablaut(Ablaut ablaut) {
         if (ablaut == Ablaut.Y) throw new IllegalArgumentException("Y ablaut is undefined in Old Fynotek");
+        final String beginning = getBeginning(), vowels = getVowels(), end = getEnd();
         if (ablaut == Ablaut.DEFAULT || vowels.isEmpty()) return new String[]{beginning, vowels, end};
         if (ablaut == Ablaut.REDUPLICATION) {
             int vowelLength = vowels.length();
@@ -118,16 +159,52 @@ public final class OldFynotekWord extends BaseFynotekWord {
      */
     @Override
     public OldFynotekWord inflect(@Nullable Inflection inflection) {
+        if (inflection != null && paradigm != null) {
+            final OldFynotekWord cached = paradigm.get(indexOf(inflection));
+            if (cached != null) return cached;
+        }
+        if (inflection instanceof FynotekWord.Case) return new OldFynotekWord(this, inflection);
         return (OldFynotekWord) super.inflect(inflection);
     }
 
+    /**
+     * {@inheritDoc}
+     * Since there is no Y ablaut in Old Fynotek, the element for {@link Ablaut#Y} is <code>null</code>.
+     * Elements for noun cases follow the behavior of {@link #inflect(Inflection)}.
+     */
+    @Override
+    public List<OldFynotekWord> paradigm() {
+        List<OldFynotekWord> output = paradigm;
+        if (output == null) paradigm = output = computeParadigm();
+        return output;
+    }
+
+    private List<OldFynotekWord> computeParadigm() {
+        // Each ablaut is only applied once, and then shared by every inflection that uses it.
+        final Ablaut[] ablauts = Ablaut.values();
+        final String[][] forms = new String[ablauts.length][];
+        for (Ablaut ablaut : ablauts)
+            if (ablaut != Ablaut.Y) forms[ablaut.ordinal()] = _ablaut(ablaut);
+
+        final OldFynotekWord[] output = new OldFynotekWord[Inflection.values.length];
+        for (int i = 0; i < output.length; i++) {
+            final Inflection inflection = Inflection.values[i];
+            final Ablaut ablaut;
+            if (inflection instanceof FynotekWord.Case) ablaut = Ablaut.DEFAULT;
+            else if (inflection == Tense.GNOMIC) ablaut = Ablaut.REDUPLICATION;
+            else ablaut = inflection.getAblaut();
+            if (forms[ablaut.ordinal()] != null) output[i] = new OldFynotekWord(forms[ablaut.ordinal()], inflection);
+        }
+        return Collections.unmodifiableList(Arrays.asList(output));
+    }
+
     /**
      * {@inheritDoc}
      * If the word to be matched with is a {@link FynotekWord} marked for a noun case, this word is returned with the FynotekWord's inflection, but with {@link Ablaut#DEFAULT} ablaut applied.
      */
     @Override
     public OldFynotekWord match(BaseFynotekWord word) {
-        if (word.inflection == null || word.inflection instanceof FynotekWord.Case) return new OldFynotekWord(beginning, vowels, end, word.inflection);
+        if (word.inflection == null || word.inflection instanceof FynotekWord.Case) return new OldFynotekWord(this, word.inflection);
         if (word.inflection instanceof Tense tenseOfVerb) return verbTense(tenseOfVerb);
         return ablaut((Ablaut) word.inflection);
     }
@@ -136,7 +213,7 @@ public final class OldFynotekWord extends BaseFynotekWord {
     public OldFynotekWord personSuffix(Person person) {
         if (person == Person.P1) return this;
         String suffix = (person == Person.P2 ? "a" : "o");
-        if (end.isEmpty()) suffix = "n" + suffix;
+        if (vowelsEnd == text.length()) suffix = "n" + suffix;
         return new OldFynotekWord(this.toString() + suffix, inflection);
     }
 
@@ -146,6 +223,20 @@ public final class OldFynotekWord extends BaseFynotekWord {
      * @return <code>true</code> if <code>sequence</code> is a valid sequence, and <code>false</code> if otherwise.
      */
     public static boolean isValidSequence(String sequence) {
-        return BaseFynotekWord.isValidSequence(sequence, "[aeiouyptkmnñrfshjw'\\s]", (byte) 2, true);
+        return Phonotactics.isValidOld(sequence);
+    }
+
+    /**
+     * Returns whether the given sequence is phonotactically and orthographically valid in old Fynotek.
+     * This method behaves in the same way as {@link #isValidSequence(String)}.
+     *
+     * The sequence is checked in a single pass, so no copies of the sequence or other objects are created.
+     * @param sequence the sequence to be checked for validity.
+     * @return <code>true</code> if <code>sequence</code> is a valid sequence, and <code>false</code> if otherwise.
+     * @see #isValidSequence(String)
+     * @since 4.0
+     */
+    public static boolean isValidSequence(CharSequence sequence) {
+        return Phonotactics.isValidOld(sequence);
     }
 }
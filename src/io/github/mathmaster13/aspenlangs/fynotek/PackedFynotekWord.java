@@ -0,0 +1,441 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import javax.annotation.Nullable;
+
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Ablaut;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Tense;
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord.Case;
+
+/**
+ * A compact, immutable form of a {@link FynotekWord}, stored in two <code>long</code>s.
+ * Each letter of the Fynotek alphabet (including old Fynotek's <code>'</code>) is stored in 5 bits,
+ * followed by the position of the word's final vowel or diphthong, its inflection, and whether it is a proper noun.
+ * As such, a PackedFynotekWord takes up a small fraction of the memory of a FynotekWord, and {@link #equals(Object)} and {@link #hashCode()} never create any objects.
+ *
+ * Inflection and suffixing work exactly as they do in FynotekWord, but operate on the packed letters directly.
+ * Only words made up of letters in the Fynotek alphabet, and at most {@link #MAX_LENGTH} letters long, can be packed.
+ * @author mathmaster13
+ * @see FynotekWord
+ * @since 4.0
+ */
+public final class PackedFynotekWord {
+    /** The maximum number of letters in a PackedFynotekWord. */
+    public static final int MAX_LENGTH = 22;
+
+    // Layout: letter i is stored in bits 5i to 5i + 4 of the 128-bit number (high, low), with 0 meaning "no letter".
+    // The metadata is stored above the letters, in bits 46 and up of high.
+    private static final int LETTER_BITS = 5;
+    private static final long LETTER_MASK = 0b11111;
+    private static final int HIGH_LETTER_BITS = MAX_LENGTH * LETTER_BITS - 64;
+    private static final long HIGH_LETTER_MASK = (1L << HIGH_LETTER_BITS) - 1;
+    private static final int VOWELS_START_SHIFT = HIGH_LETTER_BITS;
+    private static final int VOWELS_LENGTH_SHIFT = VOWELS_START_SHIFT + 5;
+    private static final int INFLECTION_SHIFT = VOWELS_LENGTH_SHIFT + 2;
+    private static final int PROPER_SHIFT = INFLECTION_SHIFT + 5;
+
+    /** Maps letter codes to letters. Code 0 is unused. */
+    private static final String ALPHABET = "\u0000aeiouyptkmnñrfshjwl'";
+    private static final int N = ALPHABET.indexOf('n'), A = ALPHABET.indexOf('a');
+    private static final long FOLO = encodeShort("folo");
+
+    private final long high;
+    private final long low;
+
+    private PackedFynotekWord(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    // Factories
+    /**
+     * Packs a FynotekWord. The result has the same letters, final vowel or diphthong, inflection, and proper noun status as <code>word</code>.
+     * @param word the word to pack.
+     * @return <code>word</code> as a PackedFynotekWord.
+     * @throws IllegalArgumentException if <code>word</code> contains a letter outside the Fynotek alphabet or is longer than {@link #MAX_LENGTH} letters.
+     */
+    public static PackedFynotekWord of(FynotekWord word) throws IllegalArgumentException {
+        final PackedFynotekWord letters = encode(word.text, 0, word.text.length());
+        return withMetadata(letters.high, letters.low, word.vowelsStart, word.vowelsEnd - word.vowelsStart, word.inflection, word.isProper);
+    }
+
+    /**
+     * Packs a String, in the same way as {@link FynotekWord#FynotekWord(String, Inflection, boolean)}.
+     * Leading and trailing whitespace is ignored, and the word will always be converted to lowercase.
+     * @param word the word to pack.
+     * @param inflection this word's inflection, or <code>null</code> if it does not have one.
+     * @param isProper <code>true</code> if this word is a proper noun, or <code>false</code> if it is not.
+     * @return <code>word</code> as a PackedFynotekWord.
+     * @throws IllegalArgumentException if <code>word</code> contains a letter outside the Fynotek alphabet or is longer than {@link #MAX_LENGTH} letters.
+     */
+    public static PackedFynotekWord of(String word, @Nullable Inflection inflection, boolean isProper) throws IllegalArgumentException {
+        word = word.trim().toLowerCase();
+        final PackedFynotekWord letters = encode(word, 0, word.length());
+        return separated(letters.high, letters.low, word.length(), inflection, isProper);
+    }
+
+    /**
+     * Packs a String as a root form. Equivalent to <code>of(word, null, isProper)</code>.
+     * @param word the word to pack.
+     * @param isProper <code>true</code> if this word is a proper noun, or <code>false</code> if it is not.
+     * @return <code>word</code> as a PackedFynotekWord.
+     * @throws IllegalArgumentException if <code>word</code> contains a letter outside the Fynotek alphabet or is longer than {@link #MAX_LENGTH} letters.
+     */
+    public static PackedFynotekWord of(String word, boolean isProper) throws IllegalArgumentException {
+        return of(word, null, isProper);
+    }
+
+    /**
+     * Unpacks this word.
+     * @return a FynotekWord equal to the word this PackedFynotekWord was created from.
+     */
+    public FynotekWord toFynotekWord() {
+        final int vowelsStart = vowelsStart();
+        return new FynotekWord(toString(), vowelsStart, vowelsStart + vowelsLength(), getInflection(), isProper());
+    }
+
+    // Accessors
+    /**
+     * Returns the number of letters in this word.
+     * @return the number of letters in this word.
+     */
+    public int length() {
+        final long lettersHigh = high & HIGH_LETTER_MASK;
+        final int topBit = (lettersHigh != 0 ? 127 - Long.numberOfLeadingZeros(lettersHigh) : 63 - Long.numberOfLeadingZeros(low));
+        return (topBit < 0 ? 0 : topBit / LETTER_BITS + 1);
+    }
+
+    /**
+     * Returns the inflection this word is marked with, or <code>null</code> if it is a root form.
+     * @return this word's inflection.
+     * @see BaseFynotekWord#inflection
+     */
+    public @Nullable Inflection getInflection() {
+        final int index = (int) ((high >>> INFLECTION_SHIFT) & 0b11111);
+        return (index == 0 ? null : Inflection.values[index - 1]);
+    }
+
+    /**
+     * Returns whether this word is a proper noun.
+     * @return <code>true</code> if this word is a proper noun, or <code>false</code> if it is not.
+     * @see FynotekWord#isProper
+     */
+    public boolean isProper() {
+        return ((high >>> PROPER_SHIFT) & 1) != 0;
+    }
+
+    /**
+     * Returns the {@link Ablaut} that this word is marked with, or <code>null</code> if it is completely unmarked (a root form).
+     * @return the Ablaut that this word is marked with
+     * @see FynotekWord#getAblaut()
+     */
+    public @Nullable Ablaut getAblaut() {
+        final Inflection inflection = getInflection();
+        if (inflection == null) return null;
+        if (inflection == Case.ACCUSATIVE && isFolo()) return Ablaut.DEFAULT;
+        return inflection.getAblaut();
+    }
+
+    // Inflection
+    /**
+     * Returns a copy of this word marked for the specified ablaut. For proper nouns, a suffix is applied instead.
+     * @param ablaut the ablaut to mark this word as.
+     * @return a copy of this word marked for the specified ablaut.
+     * @throws IllegalArgumentException if the result is longer than {@link #MAX_LENGTH} letters.
+     * @see FynotekWord#ablaut(Ablaut)
+     */
+    public PackedFynotekWord ablaut(Ablaut ablaut) throws IllegalArgumentException {
+        return applyAblaut(ablaut, ablaut);
+    }
+
+    /**
+     * Returns a copy of this word inflected for the specified noun case.
+     * @param caseOfNoun the noun case to inflect this word for.
+     * @return this word inflected for the specified noun case.
+     * @throws IllegalArgumentException if this word is the common noun "folo" and <code>caseOfNoun</code> is {@link Case#NOMINATIVE}, or if the result is longer than {@link #MAX_LENGTH} letters.
+     * @see FynotekWord#nounCase(Case)
+     */
+    public PackedFynotekWord nounCase(Case caseOfNoun) throws IllegalArgumentException {
+        if (!isProper() && isFolo()) {
+            if (caseOfNoun == Case.NOMINATIVE) throw new IllegalArgumentException("\"folo\" cannot be marked for the nominative case");
+            if (caseOfNoun == Case.ACCUSATIVE) return applyAblaut(Ablaut.DEFAULT, Case.ACCUSATIVE);
+        }
+        return applyAblaut(caseOfNoun.getAblaut(), caseOfNoun);
+    }
+
+    /**
+     * Returns a copy of this word inflected for the specified verb tense or verb modifier form.
+     * @param tenseOfVerb the verb tense to inflect this word for.
+     * @return this word inflected for the specified verb tense.
+     * @throws IllegalArgumentException if the result is longer than {@link #MAX_LENGTH} letters.
+     * @see FynotekWord#verbTense(Tense)
+     */
+    public PackedFynotekWord verbTense(Tense tenseOfVerb) throws IllegalArgumentException {
+        return applyAblaut(tenseOfVerb.getAblaut(), tenseOfVerb);
+    }
+
+    /**
+     * Returns a copy of this word inflected for the specified inflection, or this word if <code>inflection</code> is <code>null</code>.
+     * @param inflection the inflection to inflect this word for.
+     * @return this word inflected for the specified inflection.
+     * @throws IllegalArgumentException under the same conditions as {@link #nounCase(Case)}.
+     * @see FynotekWord#inflect(Inflection)
+     */
+    public PackedFynotekWord inflect(@Nullable Inflection inflection) throws IllegalArgumentException {
+        if (inflection instanceof Case caseOfNoun) return nounCase(caseOfNoun);
+        if (inflection instanceof Tense tenseOfVerb) return verbTense(tenseOfVerb);
+        if (inflection instanceof Ablaut ablaut) return ablaut(ablaut);
+        return this;
+    }
+
+    /**
+     * Returns a new word with the specified suffix appended to the end of this word,
+     * infixing <i>n</i> or <i>a</i> where needed in the same way as {@link FynotekWord#suffix(String)}.
+     * @param suffix the suffix to be appended to the end of this word.
+     * @return this word with the specified suffix appended to the end of it.
+     * @throws IllegalArgumentException if <code>suffix</code> contains a letter outside the Fynotek alphabet, or if the result is longer than {@link #MAX_LENGTH} letters.
+     * @see FynotekWord#suffix(String)
+     */
+    public PackedFynotekWord suffix(String suffix) throws IllegalArgumentException {
+        suffix = suffix.trim().toLowerCase();
+        if (suffix.isBlank()) return this;
+        final int length = length(), vowelsStart = vowelsStart(), vowelsLength = vowelsLength();
+        if (length + suffix.length() > MAX_LENGTH) throw new IllegalArgumentException("Word is too long to pack");
+        final PackedFynotekWord suffixLetters = encode(suffix, 0, suffix.length());
+        final long lettersHigh = high & HIGH_LETTER_MASK;
+
+        int infix = 0;
+        if (vowelsStart + vowelsLength == length) {
+            // Check for VVV sequence
+            if (isVowelCode(suffixLetters.letter(0)) && (vowelsLength >= 2 || (suffix.length() >= 2 && isVowelCode(suffixLetters.letter(1)))))
+                infix = N;
+        } else {
+            final long newLow = low | shiftLeftLow(suffixLetters.low, length * LETTER_BITS);
+            final long newHigh = lettersHigh | shiftLeftHigh(suffixLetters.high, suffixLetters.low, length * LETTER_BITS);
+            if (!isValidConsonantSequence(newHigh, newLow, vowelsStart, length + suffix.length()))
+                infix = A;
+        }
+
+        long newLow = low, newHigh = lettersHigh;
+        int newLength = length;
+        if (infix != 0) {
+            newLow |= shiftLeftLow((long) infix, newLength * LETTER_BITS);
+            newHigh |= shiftLeftHigh(0, infix, newLength * LETTER_BITS);
+            newLength++;
+        }
+        if (newLength + suffix.length() > MAX_LENGTH) throw new IllegalArgumentException("Word is too long to pack");
+        newHigh |= shiftLeftHigh(suffixLetters.high, suffixLetters.low, newLength * LETTER_BITS);
+        newLow |= shiftLeftLow(suffixLetters.low, newLength * LETTER_BITS);
+        return separated(newHigh, newLow, newLength + suffix.length(), getInflection(), isProper());
+    }
+
+    // Object methods
+    /**
+     * Returns a String representation of this word.
+     * @return String representation of this word.
+     */
+    @Override
+    public String toString() {
+        final int length = length();
+        final char[] output = new char[length];
+        for (int i = 0; i < length; i++) output[i] = ALPHABET.charAt(letter(i));
+        return new String(output);
+    }
+
+    /**
+     * Checks strict value-based equality of this word and an Object, in the same way as {@link FynotekWord#equals(Object)}.
+     */
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedFynotekWord that)) return false;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(high) + Long.hashCode(low);
+    }
+
+    // Internal-use methods
+    private int letter(int index) {
+        final int bit = index * LETTER_BITS;
+        return (int) (shiftRightLow(high & HIGH_LETTER_MASK, low, bit) & LETTER_MASK);
+    }
+
+    private int vowelsStart() {
+        return (int) ((high >>> VOWELS_START_SHIFT) & 0b11111);
+    }
+
+    private int vowelsLength() {
+        return (int) ((high >>> VOWELS_LENGTH_SHIFT) & 0b11);
+    }
+
+    private boolean isFolo() {
+        return (high & HIGH_LETTER_MASK) == 0 && low == FOLO;
+    }
+
+    /** Applies <code>ablaut</code> (or the matching proper noun suffix) and marks the result with <code>inflection</code>. */
+    private PackedFynotekWord applyAblaut(Ablaut ablaut, Inflection inflection) {
+        final int length = length(), vowelsStart = vowelsStart(), vowelsLength = vowelsLength(), vowelsEnd = vowelsStart + vowelsLength;
+        if (ablaut == Ablaut.DEFAULT || (vowelsLength == 0 && (!isProper() || ablaut == Ablaut.REDUPLICATION)))
+            return withMetadata(high & HIGH_LETTER_MASK, low, vowelsStart, vowelsLength, inflection, isProper());
+
+        if (isProper()) {
+            // The suffix (and n, if needed) is appended, and becomes the word's new final vowels.
+            final boolean addN = (vowelsEnd == length && (vowelsLength >= 2 || ablaut == Ablaut.REDUPLICATION));
+            final int suffixLetter = (ablaut == Ablaut.REDUPLICATION ? letter(vowelsEnd - 1) : code(ablaut.asChar));
+            final int suffixLength = (ablaut == Ablaut.REDUPLICATION ? 2 : 1);
+            long insert = (addN ? N : 0);
+            final int nLength = (addN ? 1 : 0);
+            for (int i = 0; i < suffixLength; i++) insert |= (long) suffixLetter << ((nLength + i) * LETTER_BITS);
+            return replaced(length, length, insert, nLength + suffixLength, length + nLength, suffixLength, inflection);
+        }
+
+        final int first = letter(vowelsStart), last = letter(vowelsEnd - 1);
+        long newVowels;
+        int newLength;
+        if (ablaut == Ablaut.REDUPLICATION) {
+            if (vowelsLength == 1 || first != last) {
+                newVowels = last | ((long) last << LETTER_BITS);
+                newLength = 2;
+            } else {
+                newVowels = first;
+                newLength = 1;
+            }
+        } else {
+            final int ablautLetter = code(ablaut.asChar);
+            if (last != ablautLetter) {
+                newVowels = (vowelsLength == 1 ? ablautLetter : first | ((long) ablautLetter << LETTER_BITS));
+                newLength = vowelsLength;
+            } else {
+                newVowels = last | ((long) code(ablaut.secondary) << LETTER_BITS);
+                newLength = 2;
+            }
+        }
+        return replaced(vowelsStart, vowelsEnd, newVowels, newLength, vowelsStart, newLength, inflection);
+    }
+
+    /**
+     * Replaces the letters from <code>from</code> (inclusive) to <code>to</code> (exclusive) with up to 12 letters stored in <code>insert</code>.
+     * The new final vowels start at <code>newVowelsStart</code> and are <code>newVowelsLength</code> letters long.
+     */
+    private PackedFynotekWord replaced(int from, int to, long insert, int insertLength, int newVowelsStart, int newVowelsLength, Inflection inflection) {
+        final int length = length();
+        if (length - (to - from) + insertLength > MAX_LENGTH) throw new IllegalArgumentException("Word is too long to pack");
+        final long lettersHigh = high & HIGH_LETTER_MASK;
+        final int fromBit = from * LETTER_BITS, toBit = to * LETTER_BITS, destinationBit = (from + insertLength) * LETTER_BITS;
+
+        long newLow = low & maskLow(fromBit), newHigh = lettersHigh & maskHigh(fromBit);
+        newLow |= shiftLeftLow(insert, fromBit);
+        newHigh |= shiftLeftHigh(0, insert, fromBit);
+        final long tailLow = shiftRightLow(lettersHigh, low, toBit), tailHigh = shiftRightHigh(lettersHigh, toBit);
+        newLow |= shiftLeftLow(tailLow, destinationBit);
+        newHigh |= shiftLeftHigh(tailHigh, tailLow, destinationBit);
+        return withMetadata(newHigh, newLow, newVowelsStart, newVowelsLength, inflection, isProper());
+    }
+
+    /** Finds the final vowels of the given letters, as {@link BaseFynotekWord#separateVowels(String)} does, and adds the metadata. */
+    private static PackedFynotekWord separated(long high, long low, int length, @Nullable Inflection inflection, boolean isProper) {
+        final PackedFynotekWord letters = new PackedFynotekWord(high, low);
+        int vowelsEnd = length;
+        while (vowelsEnd > 0 && !isVowelCode(letters.letter(vowelsEnd - 1))) vowelsEnd--;
+        int vowelsStart = vowelsEnd;
+        if (vowelsStart > 0) vowelsStart--;
+        if (vowelsStart > 0 && isVowelCode(letters.letter(vowelsStart - 1))) vowelsStart--;
+        return withMetadata(high, low, vowelsStart, vowelsEnd - vowelsStart, inflection, isProper);
+    }
+
+    private static PackedFynotekWord withMetadata(long high, long low, int vowelsStart, int vowelsLength, @Nullable Inflection inflection, boolean isProper) {
+        final long inflectionIndex = (inflection == null ? 0 : BaseFynotekWord.indexOf(inflection) + 1);
+        return new PackedFynotekWord(high
+                | ((long) vowelsStart << VOWELS_START_SHIFT)
+                | ((long) vowelsLength << VOWELS_LENGTH_SHIFT)
+                | (inflectionIndex << INFLECTION_SHIFT)
+                | ((isProper ? 1L : 0L) << PROPER_SHIFT), low);
+    }
+
+    /** Encodes part of a String as letters only, with no metadata. */
+    private static PackedFynotekWord encode(CharSequence word, int from, int to) {
+        if (to - from > MAX_LENGTH) throw new IllegalArgumentException("Word is too long to pack");
+        long high = 0, low = 0;
+        for (int i = from; i < to; i++) {
+            final long letter = code(word.charAt(i));
+            final int bit = (i - from) * LETTER_BITS;
+            low |= shiftLeftLow(letter, bit);
+            high |= shiftLeftHigh(0, letter, bit);
+        }
+        return new PackedFynotekWord(high, low);
+    }
+
+    /** Encodes a word of at most 12 letters into a single <code>long</code>. */
+    private static long encodeShort(String word) {
+        return encode(word, 0, word.length()).low;
+    }
+
+    private static int code(char letter) {
+        final int code = ALPHABET.indexOf(letter);
+        if (code <= 0) throw new IllegalArgumentException("'" + letter + "' is not in the Fynotek alphabet");
+        return code;
+    }
+
+    private static boolean isVowelCode(int code) {
+        return code >= 1 && code <= 6;
+    }
+
+    private static boolean isStopCode(int code) {
+        return code >= 7 && code <= 9;
+    }
+
+    /** The same check as <code>FynotekWord.isValidConsonantSequence</code>, over the letters from <code>from</code> to <code>to</code>. */
+    private static boolean isValidConsonantSequence(long high, long low, int from, int to) {
+        final PackedFynotekWord letters = new PackedFynotekWord(high, low);
+        int i = from;
+        while (i < to) {
+            int j;
+            for (j = i; j < to; j++)
+                if (isVowelCode(letters.letter(j)))
+                    break;
+            if (j - i + ((i == from || j == to) ? 1 : 0) > 3) return false;
+            if (j - i == 0) j++;
+
+            // Stop+Stop check
+            boolean stopCheck = isStopCode(letters.letter(i));
+            for (int l = i + 1; l < j; l++) {
+                final boolean currentIsStop = isStopCode(letters.letter(l));
+                if (stopCheck && currentIsStop) return false;
+                stopCheck = currentIsStop;
+            }
+            i = j;
+        }
+        return true;
+    }
+
+    // 128-bit shifts over (high, low). Shift distances are between 0 and 127.
+    private static long shiftLeftLow(long low, int distance) {
+        return (distance >= 64 ? 0 : low << distance);
+    }
+
+    private static long shiftLeftHigh(long high, long low, int distance) {
+        if (distance == 0) return high;
+        if (distance >= 64) return low << (distance - 64);
+        return (high << distance) | (low >>> (64 - distance));
+    }
+
+    private static long shiftRightLow(long high, long low, int distance) {
+        if (distance == 0) return low;
+        if (distance >= 64) return high >>> (distance - 64);
+        return (low >>> distance) | (high << (64 - distance));
+    }
+
+    private static long shiftRightHigh(long high, int distance) {
+        return (distance >= 64 ? 0 : high >>> distance);
+    }
+
+    private static long maskLow(int bits) {
+        return (bits >= 64 ? -1L : (1L << bits) - 1);
+    }
+
+    private static long maskHigh(int bits) {
+        return (bits <= 64 ? 0 : (1L << (bits - 64)) - 1);
+    }
+}
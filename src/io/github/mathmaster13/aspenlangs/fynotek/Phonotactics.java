@@ -0,0 +1,342 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Validates sequences against the phonotactics of modern and old Fynotek without using regex.
+ * Used internally by {@link FynotekWord#isValidSequence(CharSequence)} and {@link OldFynotekWord#isValidSequence(CharSequence)}.
+ *
+ * {@link FynotekWord#PHONOTACTICS} is compiled (by hand) into a deterministic finite automaton, stored as a transition table.
+ * Old Fynotek's rules are checked by a smaller state machine that counts vowels and consonants.
+ * Either way, a sequence is validated in a single pass, one character at a time, and no objects are created.
+ * The modern automaton can also be walked to enumerate every valid word (see {@link Enumerator}).
+ * @author mathmaster13
+ * @see FynotekWord#PHONOTACTICS
+ */
+final class Phonotactics {
+    private Phonotactics() {}
+
+    // Character classes
+    static final int INVALID = 0, VOWEL = 1, STOP = 2, CONSONANT = 3;
+    static final int CLASS_COUNT = 4;
+    /** The character class of every character below 256. Uppercase letters have the same class as their lowercase forms. */
+    private static final byte[] CLASSES = new byte[256];
+    static {
+        for (char c : "aeiouy".toCharArray()) setClass(c, VOWEL);
+        for (char c : "ptk".toCharArray()) setClass(c, STOP);
+        for (char c : "mnñrfshjwl".toCharArray()) setClass(c, CONSONANT);
+    }
+
+    private static void setClass(char letter, int characterClass) {
+        CLASSES[letter] = (byte) characterClass;
+        CLASSES[Character.toUpperCase(letter)] = (byte) characterClass;
+    }
+
+    // States. "Initial" consonants come before the first vowel, and "medial" consonants come after a vowel.
+    // States ending in _STOP are reached when the last letter was a stop, since a stop cannot be followed by another stop.
+    static final int DEAD = 0, START = 1,
+            INITIAL_1 = 2, INITIAL_1_STOP = 3, INITIAL_2 = 4, INITIAL_2_STOP = 5,
+            VOWEL_1 = 6, VOWEL_2 = 7,
+            MEDIAL_1 = 8, MEDIAL_1_STOP = 9, MEDIAL_2 = 10, MEDIAL_2_STOP = 11, MEDIAL_3 = 12, MEDIAL_3_STOP = 13;
+    static final int STATE_COUNT = 14;
+    /** The next state for every state and character class, at index <code>state * CLASS_COUNT + characterClass</code>. */
+    private static final byte[] TRANSITIONS = new byte[STATE_COUNT * CLASS_COUNT];
+    /** Whether a word may end in each state. A word may end with at most two consonants. */
+    private static final boolean[] ACCEPTING = new boolean[STATE_COUNT];
+    static {
+        // A word may start with at most two consonants...
+        transitions(START, VOWEL_1, INITIAL_1_STOP, INITIAL_1);
+        transitions(INITIAL_1, VOWEL_1, INITIAL_2_STOP, INITIAL_2);
+        transitions(INITIAL_1_STOP, VOWEL_1, DEAD, INITIAL_2);
+        transitions(INITIAL_2, VOWEL_1, DEAD, DEAD);
+        transitions(INITIAL_2_STOP, VOWEL_1, DEAD, DEAD);
+        // ...has at most two vowels in a row...
+        transitions(VOWEL_1, VOWEL_2, MEDIAL_1_STOP, MEDIAL_1);
+        transitions(VOWEL_2, DEAD, MEDIAL_1_STOP, MEDIAL_1);
+        // ...and at most three consonants between vowels.
+        transitions(MEDIAL_1, VOWEL_1, MEDIAL_2_STOP, MEDIAL_2);
+        transitions(MEDIAL_1_STOP, VOWEL_1, DEAD, MEDIAL_2);
+        transitions(MEDIAL_2, VOWEL_1, MEDIAL_3_STOP, MEDIAL_3);
+        transitions(MEDIAL_2_STOP, VOWEL_1, DEAD, MEDIAL_3);
+        transitions(MEDIAL_3, VOWEL_1, DEAD, DEAD);
+        transitions(MEDIAL_3_STOP, VOWEL_1, DEAD, DEAD);
+
+        for (int state : new int[] {VOWEL_1, VOWEL_2, MEDIAL_1, MEDIAL_1_STOP, MEDIAL_2, MEDIAL_2_STOP})
+            ACCEPTING[state] = true;
+    }
+
+    private static void transitions(int state, int onVowel, int onStop, int onConsonant) {
+        TRANSITIONS[state * CLASS_COUNT + VOWEL] = (byte) onVowel;
+        TRANSITIONS[state * CLASS_COUNT + STOP] = (byte) onStop;
+        TRANSITIONS[state * CLASS_COUNT + CONSONANT] = (byte) onConsonant;
+    }
+
+    // "an" followed by any number of Ns is also valid, since it is used in Fynotek.
+    private static final int AN_DEAD = 0, AN_START = 1, AN_A = 2, AN_N = 3;
+
+    /**
+     * Returns the character class of <code>letter</code>, ignoring case.
+     * @see #INVALID
+     * @see #VOWEL
+     * @see #STOP
+     * @see #CONSONANT
+     */
+    static int classOf(char letter) {
+        return (letter < 256 ? CLASSES[letter] : INVALID);
+    }
+
+    /** Returns the state reached from <code>state</code> by a letter of the given character class. */
+    static int next(int state, int characterClass) {
+        return TRANSITIONS[state * CLASS_COUNT + characterClass];
+    }
+
+    /** Returns whether a word may end in <code>state</code>. */
+    static boolean isAccepting(int state) {
+        return ACCEPTING[state];
+    }
+
+    private static int nextAn(int state, char letter) {
+        return switch (state) {
+            case AN_START -> (letter == 'a' || letter == 'A' ? AN_A : AN_DEAD);
+            case AN_A, AN_N -> (letter == 'n' || letter == 'N' ? AN_N : AN_DEAD);
+            default -> AN_DEAD;
+        };
+    }
+
+    /** Whitespace as defined by the regex <code>\s</code>, which separates words. */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * The implementation of {@link FynotekWord#isValidSequence(CharSequence)}.
+     * Leading and trailing characters up to <code>' '</code> are ignored, as in {@link String#trim()}.
+     */
+    static boolean isValid(CharSequence sequence) {
+        int from = 0, to = sequence.length();
+        while (from < to && sequence.charAt(from) <= ' ') from++;
+        while (to > from && sequence.charAt(to - 1) <= ' ') to--;
+        if (from == to) return false;
+
+        int state = START, anState = AN_START;
+        boolean inWord = true;
+        for (int i = from; i < to; i++) {
+            final char c = sequence.charAt(i);
+            if (isSeparator(c)) {
+                if (!inWord) continue;
+                if (!ACCEPTING[state] && anState != AN_N) return false;
+                state = START;
+                anState = AN_START;
+                inWord = false;
+            } else {
+                state = TRANSITIONS[state * CLASS_COUNT + classOf(c)];
+                anState = nextAn(anState, c);
+                if (state == DEAD && anState == AN_DEAD) return false;
+                inWord = true;
+            }
+        }
+        return ACCEPTING[state] || anState == AN_N;
+    }
+
+    // Enumeration
+    /** Every letter of modern Fynotek in lowercase, sorted by <code>char</code> value. */
+    private static final char[] LETTERS = "aefhijklmnoprstuwyñ".toCharArray();
+    private static final int AN_STATE_COUNT = 4;
+
+    /** Whether a word may end with the given states of both automata. */
+    private static boolean isAccepting(int state, int anState) {
+        return ACCEPTING[state] || anState == AN_N;
+    }
+
+    /**
+     * A spliterator over every valid modern Fynotek word of at most a given length, in sorted order.
+     * Used internally by {@link FynotekWord#validSequences(int)}.
+     *
+     * Words are found by walking the automaton depth-first, so only the prefixes that are still to be visited are kept in memory, never the words themselves.
+     * The number of valid words that start with each prefix is computed in advance for every state and remaining length,
+     * so prefixes that cannot lead to a valid word are never visited, and the spliterator can be split into halves of about the same size
+     * by giving away the first prefixes that are still to be visited.
+     */
+    static final class Enumerator implements Spliterator<String> {
+        /**
+         * A prefix that is still to be visited.
+         * @param isLeaf whether only the prefix itself is left to be visited, and not the words that start with it.
+         */
+        private record Prefix(String text, int state, int anState, boolean isLeaf) {}
+
+        private final int maxLength;
+        /**
+         * The number of valid words that start with a prefix in each state and have at most <code>length</code> more letters,
+         * at index <code>(length * STATE_COUNT + state) * AN_STATE_COUNT + anState</code>, or <code>Long.MAX_VALUE</code> if there are too many to count.
+         */
+        private final long[] counts;
+        /** Every prefix still to be visited, in sorted order. */
+        private final ArrayDeque<Prefix> pending;
+
+        Enumerator(int maxLength) {
+            this(maxLength, counts(maxLength), new ArrayDeque<>());
+            pending.add(new Prefix("", START, AN_START, false));
+        }
+
+        private Enumerator(int maxLength, long[] counts, ArrayDeque<Prefix> pending) {
+            this.maxLength = maxLength;
+            this.counts = counts;
+            this.pending = pending;
+        }
+
+        private static long[] counts(int maxLength) {
+            final long[] counts = new long[(maxLength + 1) * STATE_COUNT * AN_STATE_COUNT];
+            for (int length = 0; length <= maxLength; length++)
+                for (int state = 0; state < STATE_COUNT; state++)
+                    for (int anState = 0; anState < AN_STATE_COUNT; anState++) {
+                        long count = (isAccepting(state, anState) ? 1 : 0);
+                        if (length > 0)
+                            for (char letter : LETTERS) {
+                                final int nextState = TRANSITIONS[state * CLASS_COUNT + classOf(letter)], nextAnState = nextAn(anState, letter);
+                                if (nextState == DEAD && nextAnState == AN_DEAD) continue;
+                                count = saturatedAdd(count, counts[((length - 1) * STATE_COUNT + nextState) * AN_STATE_COUNT + nextAnState]);
+                            }
+                        counts[(length * STATE_COUNT + state) * AN_STATE_COUNT + anState] = count;
+                    }
+            return counts;
+        }
+
+        private static long saturatedAdd(long a, long b) {
+            final long sum = a + b;
+            return (sum < 0 ? Long.MAX_VALUE : sum);
+        }
+
+        /** The number of words that are still to be visited from <code>prefix</code>. */
+        private long count(Prefix prefix) {
+            if (prefix.isLeaf) return (isAccepting(prefix.state, prefix.anState) ? 1 : 0);
+            return counts[((maxLength - prefix.text.length()) * STATE_COUNT + prefix.state) * AN_STATE_COUNT + prefix.anState];
+        }
+
+        /** Adds every prefix that is one letter longer than <code>prefix</code> and can lead to a valid word, in sorted order, to the front (or back) of {@link #pending}. */
+        private void addChildren(Prefix prefix, boolean atFront) {
+            if (prefix.isLeaf || prefix.text.length() == maxLength) return;
+            for (int i = 0; i < LETTERS.length; i++) {
+                final char letter = LETTERS[atFront ? LETTERS.length - 1 - i : i];
+                final Prefix child = new Prefix(prefix.text + letter, TRANSITIONS[prefix.state * CLASS_COUNT + classOf(letter)], nextAn(prefix.anState, letter), false);
+                if (count(child) == 0) continue;
+                if (atFront) pending.addFirst(child);
+                else pending.addLast(child);
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (!pending.isEmpty()) {
+                final Prefix prefix = pending.removeFirst();
+                addChildren(prefix, true);
+                if (isAccepting(prefix.state, prefix.anState)) {
+                    action.accept(prefix.text);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public @Nullable Spliterator<String> trySplit() {
+            if (pending.size() == 1) { // Split the only prefix into itself and every prefix that is one letter longer.
+                final Prefix prefix = pending.removeFirst();
+                pending.add(new Prefix(prefix.text, prefix.state, prefix.anState, true));
+                addChildren(prefix, false);
+            }
+            if (pending.size() < 2) return null;
+
+            final long half = estimateSize() / 2;
+            final ArrayDeque<Prefix> first = new ArrayDeque<>();
+            long size = 0;
+            while (pending.size() > 1 && (first.isEmpty() || size < half)) {
+                final Prefix prefix = pending.removeFirst();
+                size = saturatedAdd(size, count(prefix));
+                first.add(prefix);
+            }
+            return new Enumerator(maxLength, counts, first);
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (Prefix prefix : pending) size = saturatedAdd(size, count(prefix));
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+
+        /** The words are in their natural order. */
+        @Override
+        public @Nullable Comparator<? super String> getComparator() {
+            return null;
+        }
+    }
+
+    // Old Fynotek
+    private static final int OLD_SEPARATOR = 4;
+    /** The character class of every character below 256 in old Fynotek, using the same classes as modern Fynotek. */
+    private static final byte[] OLD_CLASSES = new byte[256];
+    /** Every character below 256 converted to lowercase, so that consonants can be compared without calling {@link Character#toLowerCase(char)}. */
+    private static final char[] LOWERCASE = new char[256];
+    static {
+        for (char c : "aeiouy".toCharArray()) setOldClass(c, VOWEL);
+        for (char c : BaseFynotekWord.stopList) setOldClass(c, STOP);
+        for (char c : "mnñrfshjw".toCharArray()) setOldClass(c, CONSONANT);
+        for (char c : " \t\n\u000B\f\r".toCharArray()) OLD_CLASSES[c] = OLD_SEPARATOR;
+        for (char c = 0; c < 256; c++) LOWERCASE[c] = Character.toLowerCase(c);
+    }
+
+    private static void setOldClass(char letter, int characterClass) {
+        OLD_CLASSES[letter] = (byte) characterClass;
+        OLD_CLASSES[Character.toUpperCase(letter)] = (byte) characterClass;
+    }
+
+    /**
+     * The implementation of {@link OldFynotekWord#isValidSequence(CharSequence)}.
+     * Every word may have at most two vowels in a row and at most two consonants in a row,
+     * and a consonant cluster may not contain the same consonant twice in a row or two stops in a row.
+     */
+    static boolean isValidOld(CharSequence sequence) {
+        int from = 0, to = sequence.length();
+        while (from < to && sequence.charAt(from) <= ' ') from++;
+        while (to > from && sequence.charAt(to - 1) <= ' ') to--;
+        if (from == to) return false;
+
+        int vowels = 0, consonants = 0;
+        char lastConsonant = 0;
+        for (int i = from; i < to; i++) {
+            final char c = sequence.charAt(i);
+            switch (c < 256 ? OLD_CLASSES[c] : INVALID) {
+                case VOWEL -> {
+                    if (++vowels > 2) return false;
+                    consonants = 0;
+                }
+                case STOP, CONSONANT -> {
+                    final char letter = LOWERCASE[c];
+                    if (++consonants > 2) return false;
+                    if (consonants == 2 && (letter == lastConsonant || (OLD_CLASSES[letter] == STOP && OLD_CLASSES[lastConsonant] == STOP)))
+                        return false;
+                    lastConsonant = letter;
+                    vowels = 0;
+                }
+                case OLD_SEPARATOR -> {
+                    vowels = 0;
+                    consonants = 0;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
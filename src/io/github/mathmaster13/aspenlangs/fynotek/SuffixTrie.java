@@ -0,0 +1,77 @@
+package io.github.mathmaster13.aspenlangs.fynotek;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A trie of suffixes, stored backwards, that finds every suffix of a word in a single right-to-left pass over the word.
+ * Each suffix has a value, which is given to the caller along with the position of the suffix.
+ * Used internally by {@link FynotekAnalyzer} to strip suffixes.
+ *
+ * Like {@link NumberTrie}, the trie is stored as a table of child nodes, so each character is matched with a single array lookup.
+ * Every pattern is anchored to the end of the word, so no failure links are needed: once a character has no child, no longer suffix can match.
+ * @author mathmaster13
+ */
+final class SuffixTrie<T> {
+    /** The index of every character in the trie's alphabet, plus 1, or 0 if no suffix contains that character. */
+    private final int[] letters;
+    private final int alphabetSize;
+    /** The child of every node for every letter, at index <code>node * alphabetSize + letter</code>, or 0 (the root node) if there is none. */
+    private final int[] children;
+    /** The values of the suffixes that end at every node, in the order that they were added. */
+    private final List<List<T>> values = new ArrayList<>();
+    private int nodeCount = 1;
+
+    /**
+     * Creates a trie of the given suffixes.
+     * @param suffixes every suffix, none of which is empty. A suffix may appear more than once.
+     * @param values the value of each suffix, in the same order as <code>suffixes</code>.
+     */
+    SuffixTrie(List<String> suffixes, List<? extends T> values) {
+        int maxLetter = 0, length = 0;
+        for (String suffix : suffixes) {
+            for (int i = 0; i < suffix.length(); i++) maxLetter = Math.max(maxLetter, suffix.charAt(i));
+            length += suffix.length();
+        }
+        letters = new int[maxLetter + 1];
+        int alphabetSize = 0;
+        for (String suffix : suffixes)
+            for (int i = 0; i < suffix.length(); i++)
+                if (letters[suffix.charAt(i)] == 0) letters[suffix.charAt(i)] = ++alphabetSize;
+        this.alphabetSize = alphabetSize;
+
+        children = new int[(length + 1) * alphabetSize];
+        this.values.add(List.of());
+        for (int i = 0; i < suffixes.size(); i++) add(suffixes.get(i), values.get(i));
+        this.values.replaceAll(List::copyOf);
+    }
+
+    private void add(String suffix, T value) {
+        int node = 0;
+        for (int i = suffix.length() - 1; i >= 0; i--) {
+            final int index = node * alphabetSize + letters[suffix.charAt(i)] - 1;
+            if (children[index] == 0) {
+                children[index] = nodeCount++;
+                values.add(new ArrayList<>(1));
+            }
+            node = children[index];
+        }
+        values.get(node).add(value);
+    }
+
+    /**
+     * Calls <code>action</code> for every suffix of the characters of <code>word</code> from <code>from</code> (inclusive) to <code>to</code> (exclusive),
+     * from the shortest suffix to the longest, with the suffix's value and the index in <code>word</code> where the suffix starts.
+     */
+    void forEachMatch(CharSequence word, int from, int to, ObjIntConsumer<? super T> action) {
+        int node = 0;
+        for (int i = to - 1; i >= from; i--) {
+            final char c = word.charAt(i);
+            if (c >= letters.length || letters[c] == 0) return;
+            node = children[node * alphabetSize + letters[c] - 1];
+            if (node == 0) return;
+            for (T value : values.get(node)) action.accept(value, i);
+        }
+    }
+}
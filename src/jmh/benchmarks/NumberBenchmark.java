@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord;
+
+/** Benchmarks for translating numbers. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumberBenchmark {
+    /** Zero, a small number, a negative number, and the largest <code>long</code>. */
+    @Param({"0", "42", "-1296", "9223372036854775807"})
+    public long number;
+
+    /** A number close to {@link FynotekWord#MAX_MAGNITUDE}, which does not fit in a <code>long</code>. */
+    public BigInteger bigNumber;
+    public BigInteger smallBigNumber;
+    /** Reused by the Appendable benchmarks, so that they measure only the translation. */
+    public StringBuilder output = new StringBuilder();
+
+    @Setup
+    public void setup() {
+        bigNumber = FynotekWord.MAX_MAGNITUDE.subtract(BigInteger.valueOf(number).abs());
+        smallBigNumber = BigInteger.valueOf(number);
+    }
+
+    @Benchmark
+    public String numberLong() {
+        return FynotekWord.number(number);
+    }
+
+    @Benchmark
+    public String numberBigInteger() {
+        return FynotekWord.number(smallBigNumber);
+    }
+
+    @Benchmark
+    public String numberLargeBigInteger() {
+        return FynotekWord.number(bigNumber);
+    }
+
+    @Benchmark
+    public StringBuilder numberLongAppendable() throws IOException {
+        output.setLength(0);
+        return FynotekWord.number(number, output);
+    }
+
+    @Benchmark
+    public StringBuilder numberLargeBigIntegerAppendable() throws IOException {
+        output.setLength(0);
+        return FynotekWord.number(bigNumber, output);
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord;
+import io.github.mathmaster13.aspenlangs.fynotek.OldFynotekWord;
+
+/** Benchmarks for checking whether sequences are valid. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    /**
+     * A single valid word, an invalid word, "an" with extra Ns, a sentence, and a sentence with surrounding whitespace and capital letters.
+     */
+    @Param({"awterfayskut", "tpa", "annnn", "yumi tau eiska folo", "  Ñaki Sihne Ywar  "})
+    public String sequence;
+
+    @Benchmark
+    public boolean isValidSequence() {
+        return FynotekWord.isValidSequence(sequence);
+    }
+
+    @Benchmark
+    public boolean oldIsValidSequence() {
+        return OldFynotekWord.isValidSequence(sequence);
+    }
+}
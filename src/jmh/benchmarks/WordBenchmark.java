@@ -0,0 +1,121 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Ablaut;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Person;
+import io.github.mathmaster13.aspenlangs.fynotek.BaseFynotekWord.Tense;
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord;
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord.Case;
+import io.github.mathmaster13.aspenlangs.fynotek.OldFynotekWord;
+
+/** Benchmarks for creating and inflecting words. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordBenchmark {
+    // Construction
+    @Benchmark
+    public FynotekWord constructor(WordShape shape) {
+        return new FynotekWord(shape.text, shape.isProper);
+    }
+
+    @Benchmark
+    public OldFynotekWord oldConstructor(WordShape shape) {
+        return new OldFynotekWord(shape.text);
+    }
+
+    @Benchmark
+    public String[] separateVowels(WordShape shape) {
+        return BaseFynotekWord.separateVowels(shape.text);
+    }
+
+    @Benchmark
+    public String toString(WordShape shape) {
+        return shape.word.toString();
+    }
+
+    @Benchmark
+    public int hashCode(WordShape shape) {
+        return shape.word.hashCode();
+    }
+
+    // Inflection
+    @Benchmark
+    public FynotekWord ablaut(WordShape shape) {
+        return shape.word.ablaut(Ablaut.I);
+    }
+
+    @Benchmark
+    public FynotekWord ablautReduplication(WordShape shape) {
+        return shape.word.ablaut(Ablaut.REDUPLICATION);
+    }
+
+    @Benchmark
+    public FynotekWord nounCase(WordShape shape) {
+        return shape.word.nounCase(Case.ACCUSATIVE);
+    }
+
+    @Benchmark
+    public FynotekWord verbTense(WordShape shape) {
+        return shape.word.verbTense(Tense.FUTURE);
+    }
+
+    @Benchmark
+    public OldFynotekWord oldVerbTense(WordShape shape) {
+        return shape.oldWord.verbTense(Tense.GNOMIC);
+    }
+
+    @Benchmark
+    public FynotekWord match(WordShape shape) {
+        return shape.word.match(shape.marked);
+    }
+
+    // Affixes
+    @Benchmark
+    public FynotekWord suffix(WordShape shape) {
+        return shape.word.suffix("ak");
+    }
+
+    @Benchmark
+    public FynotekWord vowelSuffix(WordShape shape) {
+        return shape.word.suffix("ula");
+    }
+
+    @Benchmark
+    public FynotekWord prefix(WordShape shape) {
+        return shape.word.prefix("i");
+    }
+
+    @Benchmark
+    public FynotekWord personSuffix(WordShape shape) {
+        return shape.word.personSuffix(Person.P3);
+    }
+
+    @Benchmark
+    public OldFynotekWord oldPersonSuffix(WordShape shape) {
+        return shape.oldWord.personSuffix(Person.P3);
+    }
+
+    // Affix chains
+    @Benchmark
+    public FynotekWord chain(WordShape shape) {
+        return shape.word.nounCase(Case.GENITIVE).suffix("ak").suffix("ula").prefix("i");
+    }
+
+    @Benchmark
+    public FynotekWord builder(WordShape shape) {
+        return shape.word.builder().inflect(Case.GENITIVE).suffix("ak").suffix("ula").prefix("i").build();
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.mathmaster13.aspenlangs.fynotek.FynotekWord;
+import io.github.mathmaster13.aspenlangs.fynotek.OldFynotekWord;
+
+/**
+ * The words that benchmarks are run on, one for each shape of word that takes a different path through the library.
+ */
+@State(Scope.Benchmark)
+public class WordShape {
+    /**
+     * <ul>
+     *     <li><code>tau</code>: diphthong, open final syllable</li>
+     *     <li><code>ta</code>: single vowel, open final syllable</li>
+     *     <li><code>tek</code>: single vowel, closed final syllable</li>
+     *     <li><code>eiska</code>: diphthong followed by a consonant cluster</li>
+     *     <li><code>awtñy</code>: closed syllable before the final vowel, with a non-ASCII letter</li>
+     *     <li><code>folo</code>: the irregular word <i>folo</i></li>
+     * </ul>
+     */
+    @Param({"tau", "ta", "tek", "eiska", "awtñy", "folo"})
+    public String text;
+
+    @Param({"false", "true"})
+    public boolean isProper;
+
+    public FynotekWord word;
+    public OldFynotekWord oldWord;
+    /** A word marked for the accusative case, to be matched by other words. */
+    public FynotekWord marked;
+
+    @Setup
+    public void setup() {
+        word = new FynotekWord(text, isProper);
+        oldWord = new OldFynotekWord(text);
+        marked = new FynotekWord("hor", FynotekWord.Case.ACCUSATIVE, false);
+    }
+}